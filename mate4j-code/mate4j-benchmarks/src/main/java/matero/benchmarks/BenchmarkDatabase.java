@@ -0,0 +1,50 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.fixtures.Neo4jFixturesSettings;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.harness.Neo4j;
+
+/**
+ * In-process database used by end-to-end benchmarks, configured as tests configure theirs.
+ */
+final class BenchmarkDatabase
+    extends Neo4jFixturesSettings {
+  private @MonotonicNonNull InternalDb db;
+
+  @Override
+  public void configure() {
+    this.db = internal().singleton();
+  }
+
+  @NonNull Neo4j start() {
+    configure();
+    return this.db.start();
+  }
+}
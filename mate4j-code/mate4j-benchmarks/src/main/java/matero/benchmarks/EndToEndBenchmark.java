@@ -0,0 +1,145 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.neo4j.Neo4jRuntime;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.harness.Neo4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Throughput of query methods against an in-process database loaded with a {@link SyntheticGraph}.
+ * <p>
+ * Every invocation fans out {@code concurrency} tasks to platform or virtual threads, each executing
+ * {@value #QUERIES_PER_TASK} query methods in its own runtime unit of work. Executed queries per second are reported as
+ * the {@code queries} secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+  static final int QUERIES_PER_TASK = 10;
+
+  @Param({"10000"})
+  public int players;
+
+  @Param({"25"})
+  public int playersPerTeam;
+
+  @Param({"platform", "virtual"})
+  public String threads = "platform";
+
+  @Param({"1", "16", "64"})
+  public int concurrency;
+
+  private final @NonNull Players queries = new PlayersJava21Impl();
+  private @MonotonicNonNull Neo4j db;
+  private @MonotonicNonNull Neo4jRuntime runtime;
+  private @MonotonicNonNull ExecutorService executor;
+  private int teams;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.db = new BenchmarkDatabase().start();
+    this.runtime = Neo4jRuntime.builder(this.db.boltURI().toString(), AuthTokens.none())
+        .maxConnectionPoolSize(Math.max(100, this.concurrency))
+        .build();
+    this.teams = Math.max(1, this.players / this.playersPerTeam);
+    SyntheticGraph.load(this.runtime.driver(), this.players, this.teams);
+    this.executor = switch (this.threads) {
+      case "platform" -> Executors.newFixedThreadPool(this.concurrency);
+      case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+      default -> throw new IllegalArgumentException("unknown kind of threads: " + this.threads);
+    };
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.executor.shutdownNow();
+    this.runtime.close();
+    this.db.close();
+  }
+
+  @Benchmark
+  public void countByTeam(final @NonNull ExecutedQueries executed) throws Exception {
+    fanOut(executed, random -> this.queries.countByTeam(SyntheticGraph.anyTeam(random, this.teams)));
+  }
+
+  @Benchmark
+  public void ageOf(final @NonNull ExecutedQueries executed) throws Exception {
+    fanOut(executed, random -> this.queries.ageOf(SyntheticGraph.anyPlayer(random, this.players)));
+  }
+
+  @Benchmark
+  public void namesByTeam(final @NonNull ExecutedQueries executed) throws Exception {
+    fanOut(executed, random -> this.queries.namesByTeam(SyntheticGraph.anyTeam(random, this.teams)));
+  }
+
+  private void fanOut(
+      final @NonNull ExecutedQueries executed,
+      final @NonNull Consumer<@NonNull RandomGenerator> query) throws InterruptedException, ExecutionException {
+    final var tasks = new ArrayList<Future<?>>(this.concurrency);
+    for (var i = 0; i < this.concurrency; i++) {
+      tasks.add(this.executor.submit(() -> this.runtime.run(() -> {
+        final var random = ThreadLocalRandom.current();
+        for (var q = 0; q < QUERIES_PER_TASK; q++) {
+          query.accept(random);
+        }
+      })));
+    }
+    for (final var task : tasks) {
+      task.get();
+    }
+    executed.queries += (long) this.concurrency * QUERIES_PER_TASK;
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class ExecutedQueries {
+    public long queries;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      this.queries = 0;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.neo4j.Map.FirstValue;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions used by generated mappers to read the first column of a row, compared with reading the value directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class FirstValueBenchmark {
+  public Value longValue = Values.value(42L);
+  public Value doubleValue = Values.value(4.2);
+  public Value charValue = Values.value("m");
+  public Value nullValue = Values.NULL;
+
+  @Benchmark
+  public long toPrimitiveLong() {
+    return FirstValue.toPrimitiveLong(this.longValue);
+  }
+
+  @Benchmark
+  public long baseline_asLong() {
+    return this.longValue.asLong();
+  }
+
+  @Benchmark
+  public int toPrimitiveInteger() {
+    return FirstValue.toPrimitiveInteger(this.longValue);
+  }
+
+  @Benchmark
+  public Long toNullableLong() {
+    return FirstValue.toNullableLong(this.longValue);
+  }
+
+  @Benchmark
+  public Long toNullableLong_null() {
+    return FirstValue.toNullableLong(this.nullValue);
+  }
+
+  @Benchmark
+  public double toPrimitiveDouble() {
+    return FirstValue.toPrimitiveDouble(this.doubleValue);
+  }
+
+  @Benchmark
+  public Double toNullableDouble() {
+    return FirstValue.toNullableDouble(this.doubleValue);
+  }
+
+  @Benchmark
+  public char toPrimitiveChar() {
+    return FirstValue.toPrimitiveChar(this.charValue);
+  }
+
+  @Benchmark
+  public Character toNullableCharacter() {
+    return FirstValue.toNullableCharacter(this.charValue);
+  }
+}
@@ -0,0 +1,167 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.neo4j.Map.FirstValue;
+import matero.queries.neo4j.Neo4jRuntime;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Client side overhead of generated query methods, executed against stub sessions answering with rows already in
+ * memory. Each {@code baseline_*} benchmark does the same driver work by hand, so the difference with its generated
+ * counterpart is the cost added by generated code and the mate4j runtime.
+ * <p>
+ * Metrics are enabled, as they are by default; run with {@code -jvmArgsAppend -Dmate4j.queries.metrics=none} to
+ * measure the no-op mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class GeneratedQueriesBenchmark {
+  /**
+   * Query methods called per runtime unit of work, so opening its session is amortized.
+   */
+  static final int CALLS = 1_000;
+
+  private static final String COUNT_BY_TEAM = "MATCH (p:Player)-[:PLAYS_FOR]->(:Team {name: $team}) RETURN count(p)";
+  private static final String NAMES_BY_TEAM = "MATCH (p:Player)-[:PLAYS_FOR]->(:Team {name: $team}) RETURN p.name";
+
+  @Param({"10", "100"})
+  public int rows;
+
+  private final @NonNull Players players = new PlayersJava21Impl();
+  private @MonotonicNonNull Neo4jRuntime singleRow;
+  private @MonotonicNonNull Neo4jRuntime manyRows;
+  private @MonotonicNonNull StubTransactionContext singleRowTx;
+  private @MonotonicNonNull StubTransactionContext manyRowsTx;
+
+  @Setup
+  public void setUp() {
+    final var single = List.of(row(Values.value(42L)));
+    final var many = IntStream.range(0, this.rows)
+        .mapToObj(i -> row(Values.value("player-" + i)))
+        .toList();
+    this.singleRow = Neo4jRuntime.builder(new StubDriver(single)).build();
+    this.manyRows = Neo4jRuntime.builder(new StubDriver(many)).build();
+    this.singleRowTx = new StubTransactionContext(single);
+    this.manyRowsTx = new StubTransactionContext(many);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.singleRow.close();
+    this.manyRows.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void single(final @NonNull Blackhole blackhole) {
+    this.singleRow.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.players.countByTeam("Boca"));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void baseline_single(final @NonNull Blackhole blackhole) {
+    for (var i = 0; i < CALLS; i++) {
+      final var result = this.singleRowTx.run(new Query(COUNT_BY_TEAM, Map.of("team", "Boca")));
+      blackhole.consume(FirstValue.toPrimitiveLong(result.single().get(0)));
+    }
+  }
+
+  /**
+   * Same return template as {@code single}, mapping a nullable boxed value instead of a primitive one.
+   */
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void nullableSingle(final @NonNull Blackhole blackhole) {
+    this.singleRow.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.players.ageOf("Riquelme"));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void list(final @NonNull Blackhole blackhole) {
+    this.manyRows.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.players.namesByTeam("Boca"));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void baseline_list(final @NonNull Blackhole blackhole) {
+    for (var i = 0; i < CALLS; i++) {
+      final var result = this.manyRowsTx.run(new Query(NAMES_BY_TEAM, Map.of("team", "Boca")));
+      blackhole.consume(result.list(record -> record.get(0).asString()));
+    }
+  }
+
+  /**
+   * Generated code hands the driver a callback capturing the query, this measures creating and invoking it.
+   */
+  @Benchmark
+  public long capturingCallback() {
+    final var query = new Query(COUNT_BY_TEAM, Map.of("team", "Boca"));
+    final TransactionCallback<Long> callback = tx -> FirstValue.toPrimitiveLong(tx.run(query).single().get(0));
+    return callback.execute(this.singleRowTx);
+  }
+
+  @Benchmark
+  public long baseline_capturingCallback() {
+    final var query = new Query(COUNT_BY_TEAM, Map.of("team", "Boca"));
+    return FirstValue.toPrimitiveLong(this.singleRowTx.run(query).single().get(0));
+  }
+
+  static @NonNull Record row(final @NonNull Value value) {
+    return new InternalRecord(List.of("value"), new Value[]{value});
+  }
+}
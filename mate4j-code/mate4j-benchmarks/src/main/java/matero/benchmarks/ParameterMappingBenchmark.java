@@ -0,0 +1,173 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.neo4j.Neo4jRuntime;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Values;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Parameter mapping of generated query methods, each benchmark calls a {@link PlayerSearches} method taking a kind of
+ * parameter, executed against stub sessions. {@code noParameters} does the same work without parameters, so the
+ * difference with it is the cost of mapping them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class ParameterMappingBenchmark {
+  private static final int CALLS = GeneratedQueriesBenchmark.CALLS;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  public long id = 10;
+  public String name = "Riquelme";
+  public boolean active = true;
+  public int number = 10;
+  public float rating = 9.5f;
+  public char initial = 'R';
+
+  private final @NonNull PlayerSearches searches = new PlayerSearchesJava21Impl();
+  private @MonotonicNonNull Neo4jRuntime runtime;
+  private @MonotonicNonNull List<Long> ids;
+  private @MonotonicNonNull Set<String> teams;
+  private String @MonotonicNonNull [] names;
+  private @MonotonicNonNull List<AtomicLong> counters;
+  private java.util.@MonotonicNonNull Map<String, AtomicInteger> scores;
+
+  @Setup
+  public void setUp() {
+    this.runtime = Neo4jRuntime.builder(new StubDriver(List.of(GeneratedQueriesBenchmark.row(Values.value(42L))))).build();
+    this.ids = IntStream.range(0, this.size).mapToObj(i -> (long) i).toList();
+    this.teams = IntStream.range(0, this.size).mapToObj(i -> "team-" + i).collect(Collectors.toSet());
+    this.names = IntStream.range(0, this.size).mapToObj(i -> "player-" + i).toArray(String[]::new);
+    this.counters = IntStream.range(0, this.size).mapToObj(AtomicLong::new).toList();
+    final var scores = new LinkedHashMap<String, AtomicInteger>();
+    IntStream.range(0, this.size).forEach(i -> scores.put("player-" + i, new AtomicInteger(i)));
+    this.scores = scores;
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.runtime.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void noParameters(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.all());
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void nativeScalars(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byNativeScalars(this.id, this.name, this.active));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void convertedScalars(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byConvertedScalars(this.number, this.rating, this.initial));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void nativeList(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byIds(this.ids));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void copiedSet(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byTeams(this.teams));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void objectArray(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byNames(this.names));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void mappedList(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byCounters(this.counters));
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CALLS)
+  public void mappedMap(final @NonNull Blackhole blackhole) {
+    this.runtime.run(() -> {
+      for (var i = 0; i < CALLS; i++) {
+        blackhole.consume(this.searches.byScores(this.scores));
+      }
+    });
+  }
+}
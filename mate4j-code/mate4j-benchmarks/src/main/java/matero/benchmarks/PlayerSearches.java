@@ -0,0 +1,68 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.Queries;
+import matero.queries.Query;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Query methods for each kind of parameter mapped by the queries processor, from values sent as they are to the driver
+ * to collections whose elements are converted one by one.
+ */
+@Queries
+interface PlayerSearches {
+  @Query("MATCH (p:Player) RETURN count(p)")
+  long all();
+
+  @Query("MATCH (p:Player {id: $id, name: $name, active: $active}) RETURN count(p)")
+  long byNativeScalars(long id, @NonNull String name, boolean active);
+
+  @Query("MATCH (p:Player {number: $number, rating: $rating, initial: $initial}) RETURN count(p)")
+  long byConvertedScalars(int number, float rating, char initial);
+
+  @Query("MATCH (p:Player) WHERE p.id IN $ids RETURN count(p)")
+  long byIds(@NonNull List<@NonNull Long> ids);
+
+  @Query("MATCH (p:Player) WHERE p.team IN $teams RETURN count(p)")
+  long byTeams(@NonNull Set<@NonNull String> teams);
+
+  @Query("MATCH (p:Player) WHERE p.name IN $names RETURN count(p)")
+  long byNames(String[] names);
+
+  @Query("MATCH (p:Player) WHERE p.id IN $counters RETURN count(p)")
+  long byCounters(@NonNull List<@NonNull AtomicLong> counters);
+
+  @Query("MATCH (p:Player) WHERE p.score > $scores[p.name] RETURN count(p)")
+  long byScores(@NonNull Map<@NonNull String, @NonNull AtomicInteger> scores);
+}
@@ -0,0 +1,74 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks selected by JMH command line arguments, always with the GC profiler so bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}) are reported next to ns/op.
+ * <p>
+ * Unless another result format is requested, results are written as JSON to {@code mate4j-benchmarks-<version>.json},
+ * so runs of different mate4j versions can be compared.
+ * <p>
+ * Benchmarks are only built with the {@code benchmarks} profile:
+ * <pre>{@code
+ * mvn -Pbenchmarks -pl mate4j-code/mate4j-benchmarks -am package
+ * java --enable-preview -jar mate4j-code/mate4j-benchmarks/target/benchmarks.jar [JMH options]
+ * }</pre>
+ * End-to-end benchmarks boot an in-process database, select them with {@code EndToEnd} or exclude them with
+ * {@code -e EndToEnd}.
+ */
+public final class RunBenchmarks {
+  private RunBenchmarks() {
+    throw new ClassNotInstantiable(RunBenchmarks.class);
+  }
+
+  public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+    final var commandLine = new CommandLineOptions(args);
+    final var options = new OptionsBuilder()
+        .parent(commandLine)
+        .addProfiler(GCProfiler.class);
+    if (!commandLine.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON)
+          .result("mate4j-benchmarks-" + version() + ".json");
+    }
+    new Runner(options.build()).run();
+  }
+
+  private static String version() {
+    final var version = RunBenchmarks.class.getPackage().getImplementationVersion();
+    return version == null ? "dev" : version;
+  }
+}
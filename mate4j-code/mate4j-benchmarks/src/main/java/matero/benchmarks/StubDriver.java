@@ -0,0 +1,135 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.*;
+import org.neo4j.driver.types.TypeSystem;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link Driver} handing out {@link StubSession}s, so a {@link matero.queries.neo4j.Neo4jRuntime} can be built without
+ * a server.
+ */
+final class StubDriver
+    implements Driver {
+  private final @NonNull StubSession session;
+
+  /**
+   * @param rows returned by every query executed through this driver.
+   */
+  StubDriver(final @NonNull List<org.neo4j.driver.@NonNull Record> rows) {
+    this.session = new StubSession(new StubTransactionContext(rows));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends BaseSession> T session(
+      final @NonNull Class<T> sessionClass,
+      final @NonNull SessionConfig sessionConfig,
+      final @Nullable AuthToken sessionAuthToken) {
+    if (sessionClass != Session.class) {
+      throw new UnsupportedOperationException("stub driver only opens sync sessions");
+    }
+    return (T) this.session;
+  }
+
+  @Override
+  public ExecutableQuery executableQuery(final @NonNull String query) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public BookmarkManager executableQueryBookmarkManager() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isEncrypted() {
+    return false;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+
+  @Override
+  public CompletionStage<Void> closeAsync() {
+    return CompletableFuture.completedStage(null);
+  }
+
+  @Override
+  public Metrics metrics() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isMetricsEnabled() {
+    return false;
+  }
+
+  @Override
+  @Deprecated
+  public TypeSystem defaultTypeSystem() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void verifyConnectivity() {
+    // always connected
+  }
+
+  @Override
+  public CompletionStage<Void> verifyConnectivityAsync() {
+    return CompletableFuture.completedStage(null);
+  }
+
+  @Override
+  public boolean verifyAuthentication(final @NonNull AuthToken authToken) {
+    return true;
+  }
+
+  @Override
+  public boolean supportsSessionAuth() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsMultiDb() {
+    return false;
+  }
+
+  @Override
+  public CompletionStage<Boolean> supportsMultiDbAsync() {
+    return CompletableFuture.completedStage(false);
+  }
+}
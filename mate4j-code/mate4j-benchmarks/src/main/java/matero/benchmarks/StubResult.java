@@ -0,0 +1,116 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.exceptions.NoSuchRecordException;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link Result} over rows already in memory, so benchmarks only measure client side work.
+ */
+final class StubResult
+    implements Result {
+  private final @NonNull List<@NonNull Record> rows;
+  private int next;
+
+  StubResult(final @NonNull List<@NonNull Record> rows) {
+    this.rows = rows;
+  }
+
+  @Override
+  public List<String> keys() {
+    return this.rows.isEmpty() ? List.of() : this.rows.getFirst().keys();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.next < this.rows.size();
+  }
+
+  @Override
+  public Record next() {
+    if (!hasNext()) {
+      throw new NoSuchRecordException("no more rows");
+    }
+    return this.rows.get(this.next++);
+  }
+
+  @Override
+  public Record single() {
+    if (this.rows.size() - this.next != 1) {
+      throw new NoSuchRecordException("expected a single row, but " + (this.rows.size() - this.next) + " are left");
+    }
+    return next();
+  }
+
+  @Override
+  public Record peek() {
+    if (!hasNext()) {
+      throw new NoSuchRecordException("no more rows");
+    }
+    return this.rows.get(this.next);
+  }
+
+  @Override
+  public Stream<Record> stream() {
+    final var remaining = this.rows.subList(this.next, this.rows.size()).stream();
+    this.next = this.rows.size();
+    return remaining;
+  }
+
+  @Override
+  public List<Record> list() {
+    return list(Function.identity());
+  }
+
+  @Override
+  public <T> List<T> list(final @NonNull Function<Record, T> mapFunction) {
+    final var values = new ArrayList<T>(this.rows.size() - this.next);
+    while (hasNext()) {
+      values.add(mapFunction.apply(next()));
+    }
+    return values;
+  }
+
+  @Override
+  public ResultSummary consume() {
+    throw new UnsupportedOperationException("stub results have no summary");
+  }
+
+  @Override
+  public boolean isOpen() {
+    return true;
+  }
+}
@@ -0,0 +1,176 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.*;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link Session} executing managed transactions against a {@link StubTransactionContext}, explicit transactions and
+ * auto-commit queries are not supported.
+ */
+final class StubSession
+    implements Session {
+  private final @NonNull StubTransactionContext tx;
+
+  StubSession(final @NonNull StubTransactionContext tx) {
+    this.tx = tx;
+  }
+
+  @Override
+  public <T> T executeRead(
+      final @NonNull TransactionCallback<T> callback,
+      final @NonNull TransactionConfig config) {
+    return callback.execute(this.tx);
+  }
+
+  @Override
+  public <T> T executeWrite(
+      final @NonNull TransactionCallback<T> callback,
+      final @NonNull TransactionConfig config) {
+    return callback.execute(this.tx);
+  }
+
+  @Override
+  public Transaction beginTransaction() {
+    throw unsupported();
+  }
+
+  @Override
+  public Transaction beginTransaction(final @NonNull TransactionConfig config) {
+    throw unsupported();
+  }
+
+  @Override
+  @Deprecated
+  public <T> T readTransaction(final @NonNull TransactionWork<T> work) {
+    throw unsupported();
+  }
+
+  @Override
+  @Deprecated
+  public <T> T readTransaction(
+      final @NonNull TransactionWork<T> work,
+      final @NonNull TransactionConfig config) {
+    throw unsupported();
+  }
+
+  @Override
+  @Deprecated
+  public <T> T writeTransaction(final @NonNull TransactionWork<T> work) {
+    throw unsupported();
+  }
+
+  @Override
+  @Deprecated
+  public <T> T writeTransaction(
+      final @NonNull TransactionWork<T> work,
+      final @NonNull TransactionConfig config) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull TransactionConfig config) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Map<String, Object> parameters,
+      final @NonNull TransactionConfig config) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull Query query,
+      final @NonNull TransactionConfig config) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Value parameters) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Map<String, Object> parameters) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final org.neo4j.driver.@NonNull Record parameters) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(final @NonNull String query) {
+    throw unsupported();
+  }
+
+  @Override
+  public Result run(final @NonNull Query query) {
+    throw unsupported();
+  }
+
+  @Override
+  @Deprecated
+  public Bookmark lastBookmark() {
+    throw unsupported();
+  }
+
+  @Override
+  public Set<Bookmark> lastBookmarks() {
+    return Set.of();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return true;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+
+  private static @NonNull UnsupportedOperationException unsupported() {
+    return new UnsupportedOperationException("stub sessions only execute managed transactions");
+  }
+}
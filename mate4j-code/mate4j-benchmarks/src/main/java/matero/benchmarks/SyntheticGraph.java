@@ -0,0 +1,80 @@
+package matero.benchmarks;
+
+/*-
+ * #%L
+ * Mate4j/Code/Benchmarks
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Driver;
+
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Graph of {@code (:Player {id, name, age})-[:PLAYS_FOR]->(:Team {name})} used by end-to-end benchmarks.
+ */
+final class SyntheticGraph {
+  private static final int BATCH = 10_000;
+
+  private SyntheticGraph() {
+    throw new ClassNotInstantiable(SyntheticGraph.class);
+  }
+
+  static void load(
+      final @NonNull Driver driver,
+      final int players,
+      final int teams) {
+    try (final var session = driver.session()) {
+      session.run("CREATE INDEX team_name IF NOT EXISTS FOR (t:Team) ON (t.name)").consume();
+      session.run("CREATE INDEX player_name IF NOT EXISTS FOR (p:Player) ON (p.name)").consume();
+      session.run("CALL db.awaitIndexes()").consume();
+      session.executeWriteWithoutResult(tx -> tx.run(
+          "UNWIND range(0, $teams - 1) AS i CREATE (:Team {name: 'team-' + i})",
+          Map.of("teams", teams)).consume());
+      for (var from = 0; from < players; from += BATCH) {
+        final var to = Math.min(players, from + BATCH) - 1;
+        final var parameters = Map.<String, Object>of("from", from, "to", to, "teams", teams);
+        session.executeWriteWithoutResult(tx -> tx.run("""
+            UNWIND range($from, $to) AS i
+            MATCH (t:Team {name: 'team-' + (i % $teams)})
+            CREATE (:Player {id: i, name: 'player-' + i, age: 18 + i % 20})-[:PLAYS_FOR]->(t)""",
+            parameters).consume());
+      }
+    }
+  }
+
+  static @NonNull String anyTeam(
+      final @NonNull RandomGenerator random,
+      final int teams) {
+    return "team-" + random.nextInt(teams);
+  }
+
+  static @NonNull String anyPlayer(
+      final @NonNull RandomGenerator random,
+      final int players) {
+    return "player-" + random.nextInt(players);
+  }
+}
@@ -442,6 +442,14 @@ public abstract class Neo4jFixturesSettings {
       return this;
     }
 
+    /**
+     * Starts an in-process database configured as this one, to be used outside of tests (for example by benchmarks).
+     * It is up to the caller to close it.
+     */
+    public @NonNull Neo4j start() {
+      return buildNeo4J();
+    }
+
     @NonNull Neo4j buildNeo4J() {
       final var home = makeNeo4JHome();
       var builder = Neo4jBuilders.newInProcessBuilder(home)
@@ -0,0 +1,55 @@
+package matero.queries;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.annotation.*;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Caches the results of a read {@link Query} method by its parameters, for at most {@link #ttl()} and up to
+ * {@link #maxEntries()} distinct parameter combinations.
+ * <p>
+ * Cached results are discarded whenever a write query method of the same {@link Queries} interface (or of one
+ * declaring it at {@link Invalidates}) completes, so those write methods must be executed in blocking transactions
+ * (async, stream, cursor and publisher results are rejected, as their transaction is still running when they return).
+ * Results are shared by every caller, so they must not be modified: {@code List} and {@code Map} results are
+ * unmodifiable.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+@Inherited
+public @interface Cached {
+  @Positive long ttl() default 60;
+
+  @NonNull ChronoUnit unit() default ChronoUnit.SECONDS;
+
+  @Positive int maxEntries() default 1000;
+}
@@ -0,0 +1,63 @@
+package matero.queries;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.annotation.*;
+
+/**
+ * Query options sent as the {@code CYPHER} prefix of the statement of a {@link Query} method, to choose its runtime or
+ * how it is planned. {@code DEFAULT} values are not sent, so the server configuration applies.
+ * <p>
+ * When used at a {@link Queries} interface it applies to every query method, methods can override each option.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+@Inherited
+public @interface CypherOptions {
+  /**
+   * {@code PARALLEL} is only available at Enterprise Edition servers, and only runs read queries.
+   */
+  @NonNull Runtime runtime() default Runtime.DEFAULT;
+
+  @NonNull Planner planner() default Planner.DEFAULT;
+
+  @NonNull Replan replan() default Replan.DEFAULT;
+
+  enum Runtime {
+    DEFAULT, SLOTTED, PIPELINED, PARALLEL
+  }
+
+  enum Planner {
+    DEFAULT, COST, IDP, DP
+  }
+
+  enum Replan {
+    DEFAULT, FORCE, SKIP
+  }
+}
@@ -0,0 +1,55 @@
+package matero.queries;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.annotation.*;
+
+/**
+ * Pages the rows of a {@link Query} method with keyset pagination, each page continues right after the
+ * {@link #orderBy()} values of the last row of the previous one instead of skipping rows.
+ * <p>
+ * Annotated methods must return {@code matero.queries.neo4j.Page} and their last parameter must be the {@code String}
+ * continuation token of the page to fetch ({@code null} for the first one). Queries must end with a {@code RETURN}
+ * clause without {@code ORDER BY}, {@code SKIP} nor {@code LIMIT}, which neither aggregates nor returns
+ * {@code DISTINCT} rows (aggregate in a previous {@code WITH} clause instead).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+@Inherited
+public @interface Paged {
+  /**
+   * Expressions sorting the rows, evaluated before the last {@code RETURN} clause and optionally followed by
+   * {@code DESC}. Together they must identify each row, and they must not be null.
+   */
+  @NonNull String @NonNull [] orderBy();
+
+  @Positive int size() default 50;
+}
\ No newline at end of file
@@ -44,6 +44,15 @@ public @interface Query {
 
   @NonNull TransactionType txType() default TransactionType.UNKNOWN;
 
+  /**
+   * Methods that consume one row (returning a single value, a {@code Record} or a {@code boolean}) append a
+   * {@code LIMIT} to their trailing {@code RETURN} clause, so the server stops producing rows that would be discarded:
+   * {@code LIMIT 2}, to still detect queries returning too many rows, or {@code LIMIT 1} for {@code boolean} methods
+   * returning an existence check ({@code exists(...)}, {@code EXISTS {...}} or {@code count(...) > 0}). Set it to
+   * {@code false} to run the cypher as written.
+   */
+  boolean autoLimit() default true;
+
   final class is {
     private static final String UNDEFINED = "<__UNDEFINED__>";
 
@@ -0,0 +1,67 @@
+package matero.queries;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.annotation.*;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Retry policy of the transactions executing a {@link Query} method, replacing the one configured at the driver.
+ * Transactions failing with transient errors (deadlocks, leader switches, unavailable servers) are retried after an
+ * exponential backoff with jitter, until {@link #maxAttempts()} transactions were tried or retrying would exceed
+ * {@link #maxDuration()}.
+ * <p>
+ * When used at a {@link Queries} interface it applies to every query method not annotated with its own retry policy.
+ * Queries executed inside a {@code Neo4jTx} unit of work are retried with it, by the driver.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+@Inherited
+public @interface Retry {
+  /**
+   * Transactions tried, including the first one.
+   */
+  @Positive int maxAttempts() default 3;
+
+  /**
+   * Time allowed since the first transaction started until the last retry starts.
+   */
+  @Positive long maxDuration() default 30_000;
+
+  /**
+   * Wait before the first retry, doubled before every following one.
+   */
+  @Positive long backoff() default 100;
+
+  /**
+   * Of {@link #maxDuration()} and {@link #backoff()}.
+   */
+  @NonNull ChronoUnit unit() default ChronoUnit.MILLIS;
+}
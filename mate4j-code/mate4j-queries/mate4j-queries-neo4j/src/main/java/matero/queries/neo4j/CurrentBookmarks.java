@@ -0,0 +1,62 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Bookmark;
+
+import java.util.Set;
+
+/**
+ * Access to the bookmarks of the unit of work bound to current scope by {@link Neo4jRuntime}.
+ * <p>
+ * Every session opened inside a unit of work shares its bookmarks, including the sessions of virtual threads and forks
+ * started inside it, so read transactions routed to read replicas wait until they have seen previous writes.
+ */
+public final class CurrentBookmarks {
+  static final @NonNull ScopedValue<@NonNull UnitOfWorkBookmarks> $ = ScopedValue.newInstance();
+
+  private CurrentBookmarks() {
+    throw new ClassNotInstantiable(CurrentBookmarks.class);
+  }
+
+  public static boolean isBound() {
+    return $.isBound();
+  }
+
+  /**
+   * @return bookmarks of the transactions committed so far by current unit of work, useful to hand them over to
+   * another process.
+   */
+  public static @NonNull Set<@NonNull Bookmark> get() {
+    if (!$.isBound()) {
+      throw new IllegalStateException("no bookmarks bound to current scope, queries must be executed through a Neo4jRuntime with causal consistency enabled");
+    }
+    return $.get().manager().getBookmarks();
+  }
+}
\ No newline at end of file
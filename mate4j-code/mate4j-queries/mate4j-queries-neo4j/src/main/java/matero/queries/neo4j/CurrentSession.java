@@ -30,6 +30,9 @@ import matero.support.ClassNotInstantiable;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.neo4j.driver.Session;
 
+/**
+ * Access to the session bound to current scope, usually by {@link Neo4jRuntime}.
+ */
 public final class CurrentSession {
   static final @NonNull ScopedValue<@NonNull Session> $ = ScopedValue.newInstance();
 
@@ -37,7 +40,14 @@ public final class CurrentSession {
     throw new ClassNotInstantiable(CurrentSession.class);
   }
 
-  public static Session get() {
+  public static boolean isBound() {
+    return $.isBound();
+  }
+
+  public static @NonNull Session get() {
+    if (!$.isBound()) {
+      throw new IllegalStateException("no session bound to current scope, queries must be executed through a Neo4jRuntime");
+    }
     return $.get();
   }
 }
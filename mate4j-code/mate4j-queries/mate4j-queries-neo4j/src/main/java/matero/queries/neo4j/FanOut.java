@@ -0,0 +1,113 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes independent query calls in parallel, every fork runs in its own virtual thread with its own session bound to
+ * {@link CurrentSession}, sharing the bookmarks of the unit of work that created the fan-out.
+ * <p>
+ * The first failing fork cancels the others, and so does reaching the deadline:
+ * <pre>{@code
+ * try (final var fanOut = runtime.fanOut(Duration.ofMillis(500))) {
+ *   final var players = fanOut.fork(() -> teams.playersOf(team));
+ *   final var fixtures = fanOut.fork(() -> teams.fixturesOf(team));
+ *   fanOut.join();
+ *   return new TeamPage(players.get(), fixtures.get());
+ * }
+ * }</pre>
+ */
+public final class FanOut
+    implements AutoCloseable {
+  private final @NonNull Neo4jRuntime runtime;
+  private final @Nullable UnitOfWorkBookmarks bookmarks;
+  private final @Nullable Instant deadline;
+  private final StructuredTaskScope.@NonNull ShutdownOnFailure scope =
+      new StructuredTaskScope.ShutdownOnFailure("mate4j-fan-out", Thread.ofVirtual().name("mate4j-fork-", 0).factory());
+
+  FanOut(
+      final @NonNull Neo4jRuntime runtime,
+      final @Nullable UnitOfWorkBookmarks bookmarks,
+      final @Nullable Instant deadline) {
+    this.runtime = runtime;
+    this.bookmarks = bookmarks;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Starts executing {@code queries} in a new virtual thread, its result is available through the returned subtask once
+   * {@link #join()} completes.
+   */
+  public <T extends @NonNull Object> StructuredTaskScope.@NonNull Subtask<T> fork(final @NonNull Callable<T> queries) {
+    return this.scope.fork(() -> this.runtime.callInOwnSession(queries, this.bookmarks));
+  }
+
+  /**
+   * Waits until every fork completes.
+   *
+   * @throws TimeoutException when the deadline is reached first, forks still running are cancelled.
+   * @throws RuntimeException the failure of the first failing fork (checked failures are wrapped by a
+   *                          {@link CompletionException}), forks still running are cancelled.
+   */
+  public void join() throws InterruptedException, TimeoutException {
+    final var until = this.deadline;
+    if (until == null) {
+      this.scope.join();
+    } else {
+      try {
+        this.scope.joinUntil(until);
+      } catch (final TimeoutException expired) {
+        this.scope.shutdown();
+        throw expired;
+      }
+    }
+    this.scope.throwIfFailed(FanOut::unchecked);
+  }
+
+  private static @NonNull RuntimeException unchecked(final @NonNull Throwable failure) {
+    if (failure instanceof RuntimeException e) {
+      return e;
+    }
+    return new CompletionException(failure);
+  }
+
+  /**
+   * Cancels forks still running and waits for them to finish, releasing their sessions.
+   */
+  @Override
+  public void close() {
+    this.scope.close();
+  }
+}
\ No newline at end of file
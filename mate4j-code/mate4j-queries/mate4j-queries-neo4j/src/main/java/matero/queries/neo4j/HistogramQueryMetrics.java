@@ -0,0 +1,146 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.AccessMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link QueryMetrics}, keeps a {@link LatencyHistogram} and counts executions, failures, rows, retries and
+ * retry give-ups of each query method.
+ * <p>
+ * Overloaded query methods share their statistics. Failed executions are included at latency histograms.
+ */
+public final class HistogramQueryMetrics
+    implements QueryMetrics {
+  // interface and method names are constants of generated code, so their hashes are cached and equality is identity
+  private final @NonNull ConcurrentMap<@NonNull String, @NonNull ConcurrentMap<@NonNull String, @NonNull Recorder>> byQueries = new ConcurrentHashMap<>();
+
+  @Override
+  public void executed(
+      final @NonNull QueryOptions query,
+      final long rows,
+      final long elapsedNanos,
+      final @NonNull Outcome outcome) {
+    recorderOf(query).record(rows, elapsedNanos, outcome);
+  }
+
+  @Override
+  public void retried(
+      final @NonNull QueryOptions query,
+      final int attempt,
+      final @NonNull RuntimeException failure) {
+    recorderOf(query).retries.increment();
+  }
+
+  @Override
+  public void gaveUp(
+      final @NonNull QueryOptions query,
+      final int attempts,
+      final @NonNull RuntimeException failure) {
+    recorderOf(query).giveUps.increment();
+  }
+
+  private @NonNull Recorder recorderOf(final @NonNull QueryOptions query) {
+    var methods = this.byQueries.get(query.queries());
+    if (methods == null) {
+      methods = this.byQueries.computeIfAbsent(query.queries(), queries -> new ConcurrentHashMap<>());
+    }
+    var recorder = methods.get(query.method());
+    if (recorder == null) {
+      recorder = methods.computeIfAbsent(query.method(), method -> new Recorder(query.accessMode()));
+    }
+    return recorder;
+  }
+
+  /**
+   * @return statistics of every query method executed so far.
+   */
+  public @NonNull List<@NonNull QueryStatistics> snapshot() {
+    final var statistics = new ArrayList<@NonNull QueryStatistics>();
+    this.byQueries.forEach((queries, methods) -> methods.forEach((method, recorder) -> statistics.add(recorder.snapshot(queries, method))));
+    return statistics;
+  }
+
+  /**
+   * Statistics of a query method.
+   *
+   * @param latency    of executions, in nanoseconds.
+   * @param executions count, including failed ones.
+   * @param retries    of transactions that failed with transient errors, by their {@code @Retry} policy.
+   * @param giveUps    executions failed because their {@code @Retry} policy gave up.
+   */
+  public record QueryStatistics(
+      @NonNull String queries,
+      @NonNull String method,
+      @NonNull AccessMode accessMode,
+      long executions,
+      long failures,
+      long rows,
+      long retries,
+      long giveUps,
+      LatencyHistogram.@NonNull Snapshot latency) {
+  }
+
+  private static final class Recorder {
+    private final @NonNull AccessMode accessMode;
+    private final @NonNull LatencyHistogram latency = new LatencyHistogram();
+    private final @NonNull LongAdder failures = new LongAdder();
+    private final @NonNull LongAdder rows = new LongAdder();
+    private final @NonNull LongAdder retries = new LongAdder();
+    private final @NonNull LongAdder giveUps = new LongAdder();
+
+    Recorder(final @NonNull AccessMode accessMode) {
+      this.accessMode = accessMode;
+    }
+
+    void record(
+        final long rows,
+        final long elapsedNanos,
+        final @NonNull Outcome outcome) {
+      this.latency.record(elapsedNanos);
+      if (outcome == Outcome.FAILURE) {
+        this.failures.increment();
+      } else if (rows > 0) {
+        this.rows.add(rows);
+      }
+    }
+
+    @NonNull QueryStatistics snapshot(
+        final @NonNull String queries,
+        final @NonNull String method) {
+      final var latency = this.latency.snapshot();
+      return new QueryStatistics(queries, method, this.accessMode, latency.count(), this.failures.sum(), this.rows.sum(), this.retries.sum(), this.giveUps.sum(), latency);
+    }
+  }
+}
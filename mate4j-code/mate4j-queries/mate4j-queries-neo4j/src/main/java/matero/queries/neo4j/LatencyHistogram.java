@@ -0,0 +1,164 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of nanosecond latencies.
+ * <p>
+ * Values are counted in log-linear buckets (8 sub-buckets per power of two, so percentiles are within 12.5% of the
+ * recorded values), and buckets are striped by thread so concurrent writers seldom update the same counters.
+ * <p>
+ * Stripes are allocated when first recorded to, so histograms of seldom executed queries take a single stripe (about
+ * 4KB) instead of one per stripe.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // values are not negative, so the highest exponent is 62
+  static final int BUCKETS = (Long.SIZE - 1 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+  private static final int STRIPES = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+  private final @NonNull AtomicReferenceArray<@Nullable AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+  private final @NonNull LongAdder total = new LongAdder();
+  private final @NonNull LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  public void record(final long nanos) {
+    final var value = Math.max(0, nanos);
+    stripe((int) Thread.currentThread().threadId() & (STRIPES - 1)).getAndIncrement(bucketOf(value));
+    this.total.add(value);
+    this.max.accumulate(value);
+  }
+
+  private @NonNull AtomicLongArray stripe(final int index) {
+    final var stripe = this.stripes.get(index);
+    if (stripe != null) {
+      return stripe;
+    }
+    final var created = new AtomicLongArray(BUCKETS);
+    final var raced = this.stripes.compareAndExchange(index, null, created);
+    return raced == null ? created : raced;
+  }
+
+  /**
+   * @return amount of stripes recorded to.
+   */
+  int allocatedStripes() {
+    var allocated = 0;
+    for (var s = 0; s < STRIPES; s++) {
+      if (this.stripes.get(s) != null) {
+        allocated++;
+      }
+    }
+    return allocated;
+  }
+
+  /**
+   * @return a point in time view of recorded values, concurrent recordings may be partially included.
+   */
+  public @NonNull Snapshot snapshot() {
+    final var merged = new long[BUCKETS];
+    var recorded = 0L;
+    for (var s = 0; s < STRIPES; s++) {
+      final var stripe = this.stripes.get(s);
+      if (stripe != null) {
+        for (var bucket = 0; bucket < BUCKETS; bucket++) {
+          final var n = stripe.get(bucket);
+          merged[bucket] += n;
+          recorded += n;
+        }
+      }
+    }
+    final var max = this.max.get();
+    return new Snapshot(
+        recorded,
+        recorded == 0 ? 0 : this.total.sum() / recorded,
+        percentile(merged, recorded, 0.5, max),
+        percentile(merged, recorded, 0.99, max),
+        percentile(merged, recorded, 0.999, max),
+        max);
+  }
+
+  static int bucketOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final var shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  /**
+   * @return the greatest value counted at {@code bucket}.
+   */
+  static long highestValueAt(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final var shift = bucket / SUB_BUCKETS - 1;
+    final var lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowest + ((1L << shift) - 1);
+  }
+
+  private static long percentile(
+      final long @NonNull [] buckets,
+      final long recorded,
+      final double quantile,
+      final long max) {
+    if (recorded == 0) {
+      return 0;
+    }
+    final var rank = (long) Math.ceil(quantile * recorded);
+    var seen = 0L;
+    for (var bucket = 0; bucket < buckets.length; bucket++) {
+      seen += buckets[bucket];
+      if (seen >= rank) {
+        return Math.min(highestValueAt(bucket), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Recorded latencies, in nanoseconds.
+   */
+  public record Snapshot(
+      long count,
+      long mean,
+      long p50,
+      long p99,
+      long p999,
+      long max) {
+  }
+}
@@ -34,6 +34,8 @@ import org.neo4j.driver.Result;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.exceptions.value.ValueException;
 
+import java.util.Arrays;
+
 public final class Map {
   private Map() {
     throw new ClassNotInstantiable(Map.class);
@@ -176,9 +178,37 @@ public final class Map {
         return value.asDouble();
       }
     }
+
+    /**
+     * Reads a map, node or relationship value as a record, whose keys are the entries (or properties) keys.
+     */
+    public static @Nullable Record toNullableRecord(final @NonNull Value value) {
+      if (value.isNull()) {
+        return null;
+      }
+      return new ValueRecord(value);
+    }
+
+    /**
+     * Used by generated code returning raw lists as components, so they are not inferred as {@code List<Object>}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static java.util.@NonNull List toRawList(final @NonNull Value value) {
+      return value.asList();
+    }
+
+    /**
+     * Used by generated code returning raw maps as components, so they are not inferred as {@code Map<String, Object>}.
+     */
+    @SuppressWarnings("rawtypes")
+    public static java.util.@NonNull Map toRawMap(final @NonNull Value value) {
+      return value.asMap();
+    }
   }
 
   public static final class QueryResult {
+    private static final int INITIAL_CAPACITY = 64;
+
     private QueryResult() {
       throw new ClassNotInstantiable(QueryResult.class);
     }
@@ -192,5 +222,50 @@ public final class Map {
     public static @NonNull Record toSingleRecord(final @NonNull Result result) {
       return result.single();
     }
+
+    /**
+     * Collects the first value of every row, without boxing them.
+     */
+    public static long @NonNull [] toLongArray(final @NonNull Result result) {
+      var values = new long[INITIAL_CAPACITY];
+      var size = 0;
+      while (result.hasNext()) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = FirstValue.toPrimitiveLong(result.next().get(0));
+      }
+      return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Collects the first value of every row, without boxing them.
+     */
+    public static int @NonNull [] toIntArray(final @NonNull Result result) {
+      var values = new int[INITIAL_CAPACITY];
+      var size = 0;
+      while (result.hasNext()) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = FirstValue.toPrimitiveInteger(result.next().get(0));
+      }
+      return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Collects the first value of every row, without boxing them.
+     */
+    public static double @NonNull [] toDoubleArray(final @NonNull Result result) {
+      var values = new double[INITIAL_CAPACITY];
+      var size = 0;
+      while (result.hasNext()) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = FirstValue.toPrimitiveDouble(result.next().get(0));
+      }
+      return size == values.length ? values : Arrays.copyOf(values, size);
+    }
   }
 }
\ No newline at end of file
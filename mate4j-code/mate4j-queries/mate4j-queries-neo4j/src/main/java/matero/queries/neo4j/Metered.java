@@ -0,0 +1,143 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * Reports query executions to the installed {@link QueryMetrics}.
+ */
+final class Metered {
+  static final @NonNull QueryMetrics INSTALLED = resolveInstalled();
+
+  private Metered() {
+    throw new ClassNotInstantiable(Metered.class);
+  }
+
+  private static @NonNull QueryMetrics resolveInstalled() {
+    if ("none".equalsIgnoreCase(System.getProperty(QueryMetrics.PROPERTY))) {
+      return QueryMetrics.NOOP;
+    }
+    return ServiceLoader.load(QueryMetrics.class)
+        .findFirst()
+        .orElseGet(HistogramQueryMetrics::new);
+  }
+
+  /**
+   * @return {@code true} when executions of {@code options} are not reported.
+   */
+  static boolean isOff(final @NonNull QueryOptions options) {
+    return INSTALLED == QueryMetrics.NOOP || options == QueryOptions.DEFAULT;
+  }
+
+  static <T> T measure(
+      final @NonNull QueryOptions options,
+      final @NonNull Supplier<T> execution) {
+    if (isOff(options)) {
+      return execution.get();
+    }
+    final var start = System.nanoTime();
+    final T value;
+    try {
+      value = execution.get();
+    } catch (final RuntimeException failure) {
+      failed(options, start);
+      throw failure;
+    }
+    succeeded(options, rowsOf(value), start);
+    return value;
+  }
+
+  static void succeeded(
+      final @NonNull QueryOptions options,
+      final long rows,
+      final long start) {
+    INSTALLED.executed(options, rows, System.nanoTime() - start, QueryMetrics.Outcome.SUCCESS);
+  }
+
+  static void failed(
+      final @NonNull QueryOptions options,
+      final long start) {
+    INSTALLED.executed(options, 0, System.nanoTime() - start, QueryMetrics.Outcome.FAILURE);
+  }
+
+  static void retried(
+      final @NonNull QueryOptions options,
+      final int attempt,
+      final @NonNull RuntimeException failure) {
+    if (!isOff(options)) {
+      INSTALLED.retried(options, attempt, failure);
+    }
+  }
+
+  static void gaveUp(
+      final @NonNull QueryOptions options,
+      final int attempts,
+      final @NonNull RuntimeException failure) {
+    if (!isOff(options)) {
+      INSTALLED.gaveUp(options, attempts, failure);
+    }
+  }
+
+  /**
+   * @return rows returned to the caller as {@code value}.
+   */
+  static long rowsOf(final @Nullable Object value) {
+    if (value == null || value instanceof Result || value instanceof ResultSummary) {
+      return 0;
+    }
+    if (value instanceof Collection<?> rows) {
+      return rows.size();
+    }
+    if (value instanceof Page<?> page) {
+      return page.items().size();
+    }
+    // primitive arrays are returned by methods collecting a column, byte[] is a single value
+    if (value instanceof long[] rows) {
+      return rows.length;
+    }
+    if (value instanceof int[] rows) {
+      return rows.length;
+    }
+    if (value instanceof double[] rows) {
+      return rows.length;
+    }
+    if (value instanceof Optional<?> row) {
+      return row.isPresent() ? 1 : 0;
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,110 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransactionCallback;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Executes generated async query methods, each execution uses its own {@link AsyncSession} opened from the
+ * {@link Neo4jRuntime} bound to current scope, and closed once the transaction completes.
+ * <p>
+ * Async transactions commit on their own, so async query methods can not be executed inside a {@link Neo4jTx} unit of
+ * work.
+ */
+public final class Neo4jAsync {
+  private Neo4jAsync() {
+    throw new ClassNotInstantiable(Neo4jAsync.class);
+  }
+
+  public static <T> @NonNull CompletionStage<T> executeReadAsync(final @NonNull AsyncTransactionCallback<@NonNull CompletionStage<T>> callback) {
+    return executeReadAsync(QueryOptions.DEFAULT, callback);
+  }
+
+  public static <T> @NonNull CompletionStage<T> executeReadAsync(
+      final @NonNull QueryOptions options,
+      final @NonNull AsyncTransactionCallback<@NonNull CompletionStage<T>> callback) {
+    final var start = System.nanoTime();
+    final var session = runtime().openAsyncSession(options.fetchSize());
+    return measured(options, start, closingSession(session, session.executeReadAsync(callback, options.txConfig())));
+  }
+
+  public static <T> @NonNull CompletionStage<T> executeWriteAsync(final @NonNull AsyncTransactionCallback<@NonNull CompletionStage<T>> callback) {
+    return executeWriteAsync(QueryOptions.DEFAULT, callback);
+  }
+
+  public static <T> @NonNull CompletionStage<T> executeWriteAsync(
+      final @NonNull QueryOptions options,
+      final @NonNull AsyncTransactionCallback<@NonNull CompletionStage<T>> callback) {
+    final var start = System.nanoTime();
+    final var session = runtime().openAsyncSession(options.fetchSize());
+    return measured(options, start, closingSession(session, session.executeWriteAsync(callback, options.txConfig())));
+  }
+
+  /**
+   * @throws IllegalStateException when called inside a {@link Neo4jTx} unit of work.
+   */
+  private static @NonNull Neo4jRuntime runtime() {
+    if (Neo4jTx.isActive()) {
+      throw new IllegalStateException("async queries can not be executed inside a Neo4jTx transaction, they would commit on their own");
+    }
+    return Neo4jRuntime.current();
+  }
+
+  private static <T> @NonNull CompletionStage<T> measured(
+      final @NonNull QueryOptions options,
+      final long start,
+      final @NonNull CompletionStage<T> execution) {
+    if (Metered.isOff(options)) {
+      return execution;
+    }
+    return execution.whenComplete((value, failure) -> {
+      if (failure == null) {
+        Metered.succeeded(options, Metered.rowsOf(value), start);
+      } else {
+        Metered.failed(options, start);
+      }
+    });
+  }
+
+  private static <T> @NonNull CompletionStage<T> closingSession(
+      final @NonNull AsyncSession session,
+      final @NonNull CompletionStage<T> execution) {
+    return execution
+        .handle((value, failure) -> session.closeAsync()
+            .thenCompose(closed -> failure == null
+                ? CompletableFuture.completedStage(value)
+                : CompletableFuture.<T>failedStage(failure)))
+        .thenCompose(Function.identity());
+  }
+}
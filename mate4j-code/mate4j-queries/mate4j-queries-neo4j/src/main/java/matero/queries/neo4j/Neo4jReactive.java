@@ -0,0 +1,146 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.reactive.ReactiveSession;
+import org.neo4j.driver.reactive.ReactiveTransactionContext;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Executes generated reactive query methods, each subscription uses its own {@link ReactiveSession} opened from the
+ * {@link Neo4jRuntime} bound to current scope when the query method was invoked.
+ * <p>
+ * Records are pulled from the server as the subscriber requests them, so results are never fully materialized. As
+ * required by reactive streams, mappers must not produce {@code null} values.
+ * <p>
+ * Reactive transactions commit on their own, so reactive query methods can not be invoked inside a {@link Neo4jTx} unit
+ * of work.
+ */
+public final class Neo4jReactive {
+  private Neo4jReactive() {
+    throw new ClassNotInstantiable(Neo4jReactive.class);
+  }
+
+  public static <T> Flow.@NonNull Publisher<T> executeRead(
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    return executeRead(QueryOptions.DEFAULT, query, mapper);
+  }
+
+  public static <T> Flow.@NonNull Publisher<T> executeRead(
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    final var runtime = runtime();
+    final var bookmarks = runtime.currentBookmarks();
+    return JdkFlowAdapter.publisherToFlowPublisher(measured(options, Flux.usingWhen(
+        Mono.fromSupplier(() -> runtime.openReactiveSession(options.fetchSize(), bookmarks)),
+        session -> flux(session.executeRead(tx -> records(tx, query, mapper), options.txConfig())),
+        Neo4jReactive::close)));
+  }
+
+  public static <T> Flow.@NonNull Publisher<T> executeWrite(
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    return executeWrite(QueryOptions.DEFAULT, query, mapper);
+  }
+
+  public static <T> Flow.@NonNull Publisher<T> executeWrite(
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    final var runtime = runtime();
+    final var bookmarks = runtime.currentBookmarks();
+    return JdkFlowAdapter.publisherToFlowPublisher(measured(options, Flux.usingWhen(
+        Mono.fromSupplier(() -> runtime.openReactiveSession(options.fetchSize(), bookmarks)),
+        session -> flux(session.executeWrite(tx -> records(tx, query, mapper), options.txConfig())),
+        Neo4jReactive::close)));
+  }
+
+  /**
+   * @throws IllegalStateException when called inside a {@link Neo4jTx} unit of work.
+   */
+  private static @NonNull Neo4jRuntime runtime() {
+    if (Neo4jTx.isActive()) {
+      throw new IllegalStateException("reactive queries can not be executed inside a Neo4jTx transaction, they would commit on their own");
+    }
+    return Neo4jRuntime.current();
+  }
+
+  /**
+   * Measures each subscription from subscribing until completion, errors or cancellation (reported as success).
+   */
+  private static <T> @NonNull Flux<T> measured(
+      final @NonNull QueryOptions options,
+      final @NonNull Flux<T> records) {
+    if (Metered.isOff(options)) {
+      return records;
+    }
+    return Flux.defer(() -> {
+      final var start = System.nanoTime();
+      final var rows = new AtomicLong();
+      return records
+          .doOnNext(row -> rows.incrementAndGet())
+          .doFinally(signal -> {
+            if (signal == SignalType.ON_ERROR) {
+              Metered.failed(options, start);
+            } else {
+              Metered.succeeded(options, rows.get(), start);
+            }
+          });
+    });
+  }
+
+  private static <T> Flow.@NonNull Publisher<T> records(
+      final @NonNull ReactiveTransactionContext tx,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    return JdkFlowAdapter.publisherToFlowPublisher(
+        flux(tx.run(query))
+            .flatMap(result -> flux(result.records()))
+            .map(mapper));
+  }
+
+  private static @NonNull Mono<Void> close(final @NonNull ReactiveSession session) {
+    return Mono.fromDirect(flux(session.<Void>close()));
+  }
+
+  private static <T> @NonNull Flux<T> flux(final Flow.@NonNull Publisher<T> publisher) {
+    return JdkFlowAdapter.flowPublisherToFlux(publisher);
+  }
+}
@@ -0,0 +1,621 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.*;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.reactive.ReactiveSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link Driver} used by generated queries (owning it only when the runtime created it), and binds a {@link Session} to {@link CurrentSession} for every
+ * unit of work executed through it.
+ * <p>
+ * One session is opened per unit of work (usually a request, or a virtual thread) and it is reused by every query
+ * executed inside it, nested units of work share the session of the outermost one.
+ * <p>
+ * When causal consistency is enabled (the default) every unit of work has its own bookmarks, shared by all the sessions
+ * opened inside it and by the units of work of virtual threads started through the runtime while executing it. So
+ * read transactions can be routed to read replicas and still see the writes done before them.
+ */
+public final class Neo4jRuntime
+    implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(Neo4jRuntime.class);
+
+  static final @NonNull ScopedValue<@NonNull Neo4jRuntime> $ = ScopedValue.newInstance();
+
+  private final @NonNull Driver driver;
+  private final @NonNull SessionConfig sessionConfig;
+  private final @NonNull SessionConfig readSessionConfig;
+  private final @NonNull ConcurrentHashMap<@NonNull Long, @NonNull SessionConfig> sessionConfigsByFetchSize = new ConcurrentHashMap<>();
+  private final @NonNull ConcurrentHashMap<@NonNull Long, @NonNull SessionConfig> readSessionConfigsByFetchSize = new ConcurrentHashMap<>();
+  private final @NonNull Duration leakThreshold;
+  private final @NonNull Collection<@NonNull TrackedSession> openSessions = ConcurrentHashMap.newKeySet();
+  private final @NonNull LongAdder sessionsOpened = new LongAdder();
+  private final @NonNull LongAdder sessionsClosed = new LongAdder();
+  private final @NonNull LongAdder sessionsLeaked = new LongAdder();
+  private final @Nullable Thread leakDetector;
+  private final @Nullable SlowQueryLog slowQueryLog;
+  private final boolean causalConsistency;
+  private final boolean ownsDriver;
+
+  private Neo4jRuntime(
+      final @NonNull Driver driver,
+      final boolean ownsDriver,
+      final @NonNull SessionConfig sessionConfig,
+      final @NonNull SessionConfig readSessionConfig,
+      final @NonNull Duration leakThreshold,
+      final @Nullable Duration leakDetectionInterval,
+      final @Nullable SlowQueryLog slowQueryLog,
+      final boolean causalConsistency) {
+    this.driver = driver;
+    this.ownsDriver = ownsDriver;
+    this.sessionConfig = sessionConfig;
+    this.readSessionConfig = readSessionConfig;
+    this.leakThreshold = leakThreshold;
+    this.slowQueryLog = slowQueryLog;
+    this.causalConsistency = causalConsistency;
+    if (leakDetectionInterval == null) {
+      this.leakDetector = null;
+    } else {
+      this.leakDetector = Thread.ofVirtual()
+          .name("mate4j-leaked-sessions-detector")
+          .start(() -> detectLeaksEvery(leakDetectionInterval));
+    }
+  }
+
+  /**
+   * @return the runtime bound to the current scope.
+   * @throws IllegalStateException when no unit of work is being executed through a runtime.
+   */
+  public static @NonNull Neo4jRuntime current() {
+    if (!$.isBound()) {
+      throw new IllegalStateException("no Neo4jRuntime bound to current scope");
+    }
+    return $.get();
+  }
+
+  /**
+   * @return a builder of runtimes using {@code driver}, which is still owned by the caller: closing the runtime does
+   * not close it.
+   */
+  public static @NonNull Builder builder(final @NonNull Driver driver) {
+    return new Builder(driver);
+  }
+
+  /**
+   * @return a builder of runtimes owning a driver connected to {@code uri}, closed when the runtime is closed.
+   */
+  public static @NonNull Builder builder(
+      final @NonNull String uri,
+      final @NonNull AuthToken authToken) {
+    return new Builder(uri, authToken);
+  }
+
+  public @NonNull Driver driver() {
+    return this.driver;
+  }
+
+  /**
+   * Executes {@code work} with a session bound to {@link CurrentSession}, closing it when {@code work} completes.
+   */
+  public void run(final @NonNull Runnable work) {
+    run(work, null);
+  }
+
+  private void run(
+      final @NonNull Runnable work,
+      final @Nullable UnitOfWorkBookmarks inheritedBookmarks) {
+    if (isBoundToCurrentScope()) {
+      work.run();
+    } else {
+      final var bookmarks = bookmarksOfNewUnitOfWork(inheritedBookmarks);
+      try (final var session = openSession(this.sessionConfig, bookmarks);
+           final var sessions = new UnitOfWorkSessions(this, bookmarks)) {
+        scopeOf(session, sessions, bookmarks).run(work);
+      }
+    }
+  }
+
+  /**
+   * Executes {@code work} with a session bound to {@link CurrentSession}, closing it when {@code work} completes.
+   */
+  public <T> T call(final @NonNull Callable<T> work) throws Exception {
+    if (isBoundToCurrentScope()) {
+      return work.call();
+    } else {
+      final var bookmarks = bookmarksOfNewUnitOfWork(null);
+      try (final var session = openSession(this.sessionConfig, bookmarks);
+           final var sessions = new UnitOfWorkSessions(this, bookmarks)) {
+        return scopeOf(session, sessions, bookmarks).call(work);
+      }
+    }
+  }
+
+  /**
+   * Executes {@code work} with a session bound to {@link CurrentSession}, closing it when {@code work} completes.
+   */
+  public <T> T get(final @NonNull Supplier<T> work) {
+    if (isBoundToCurrentScope()) {
+      return work.get();
+    } else {
+      final var bookmarks = bookmarksOfNewUnitOfWork(null);
+      try (final var session = openSession(this.sessionConfig, bookmarks);
+           final var sessions = new UnitOfWorkSessions(this, bookmarks)) {
+        return scopeOf(session, sessions, bookmarks).get(work);
+      }
+    }
+  }
+
+  /**
+   * Used by {@link FanOut} forks, they inherit the scope of the fan-out owner but must not share its session.
+   */
+  <T> T callInOwnSession(
+      final @NonNull Callable<T> work,
+      final @Nullable UnitOfWorkBookmarks inheritedBookmarks) throws Exception {
+    final var bookmarks = bookmarksOfNewUnitOfWork(inheritedBookmarks);
+    try (final var session = openSession(this.sessionConfig, bookmarks);
+         final var sessions = new UnitOfWorkSessions(this, bookmarks)) {
+      return scopeOf(session, sessions, bookmarks).call(work);
+    }
+  }
+
+  private boolean isBoundToCurrentScope() {
+    return $.isBound() && $.get() == this && CurrentSession.$.isBound();
+  }
+
+  private ScopedValue.@NonNull Carrier scopeOf(
+      final @NonNull Session session,
+      final @NonNull UnitOfWorkSessions sessions,
+      final @Nullable UnitOfWorkBookmarks bookmarks) {
+    final var scope = ScopedValue.where($, this).where(CurrentSession.$, session).where(UnitOfWorkSessions.$, sessions);
+    return bookmarks == null ? scope : scope.where(CurrentBookmarks.$, bookmarks);
+  }
+
+  private @Nullable UnitOfWorkBookmarks bookmarksOfNewUnitOfWork(final @Nullable UnitOfWorkBookmarks inherited) {
+    if (!this.causalConsistency) {
+      return null;
+    }
+    return inherited == null
+        ? new UnitOfWorkBookmarks(BookmarkManagers.defaultManager(BookmarkManagerConfig.builder().build()))
+        : inherited;
+  }
+
+  /**
+   * @return bookmarks of the unit of work being executed through this runtime, if any.
+   */
+  @Nullable UnitOfWorkBookmarks currentBookmarks() {
+    if ($.isBound() && $.get() == this && CurrentBookmarks.$.isBound()) {
+      return CurrentBookmarks.$.get();
+    }
+    return null;
+  }
+
+  /**
+   * Starts a virtual thread executing {@code task} with its own session, sharing the bookmarks of the unit of work
+   * starting it (if any).
+   */
+  public @NonNull Thread startVirtualThread(final @NonNull Runnable task) {
+    final var bookmarks = currentBookmarks();
+    return Thread.ofVirtual().start(() -> run(task, bookmarks));
+  }
+
+  /**
+   * @return an executor starting a virtual thread per task, every task is executed with its own session, sharing the
+   * bookmarks of the unit of work submitting it (if any).
+   */
+  public @NonNull ExecutorService newVirtualThreadPerTaskExecutor() {
+    final var threads = Thread.ofVirtual().name("mate4j-", 0).factory();
+    return Executors.newThreadPerTaskExecutor(task -> {
+      final var bookmarks = currentBookmarks();
+      return threads.newThread(() -> run(task, bookmarks));
+    });
+  }
+
+  /**
+   * @return a fan-out executing each fork with its own session, without deadline.
+   * @throws IllegalStateException when called inside a transaction, as forks can not take part of it.
+   */
+  public @NonNull FanOut fanOut() {
+    return newFanOut(null);
+  }
+
+  /**
+   * @return a fan-out executing each fork with its own session, forks still running after {@code timeout} are
+   * cancelled.
+   * @throws IllegalStateException when called inside a transaction, as forks can not take part of it.
+   */
+  public @NonNull FanOut fanOut(final @NonNull Duration timeout) {
+    return newFanOut(Instant.now().plus(timeout));
+  }
+
+  private @NonNull FanOut newFanOut(final @Nullable Instant deadline) {
+    if (Neo4jTx.isActive()) {
+      throw new IllegalStateException("queries can not be forked inside a transaction");
+    }
+    return new FanOut(this, currentBookmarks(), deadline);
+  }
+
+  /**
+   * Opens a session using this runtime configuration, it is up to the caller to close it.
+   */
+  public @NonNull Session openSession() {
+    return openSession(AccessMode.WRITE);
+  }
+
+  /**
+   * Opens a session using this runtime configuration and {@code accessMode} as default access mode for its explicit
+   * transactions, it is up to the caller to close it.
+   */
+  public @NonNull Session openSession(final @NonNull AccessMode accessMode) {
+    return openSession(accessMode == AccessMode.READ ? this.readSessionConfig : this.sessionConfig, currentBookmarks());
+  }
+
+  /**
+   * Opens a session using this runtime configuration, {@code accessMode} as default access mode for its explicit
+   * transactions and pulling {@code fetchSize} records per batch ({@code 0} keeps the runtime fetch size). It is up
+   * to the caller to close it.
+   */
+  public @NonNull Session openSession(
+      final @NonNull AccessMode accessMode,
+      final @NonNegative long fetchSize) {
+    return openSession(sessionConfig(accessMode, fetchSize), currentBookmarks());
+  }
+
+  /**
+   * Used by {@link UnitOfWorkSessions}, sessions are opened with the bookmarks of their unit of work.
+   */
+  @NonNull Session openSession(
+      final @NonNull AccessMode accessMode,
+      final @NonNegative long fetchSize,
+      final @Nullable UnitOfWorkBookmarks bookmarks) {
+    return openSession(sessionConfig(accessMode, fetchSize), bookmarks);
+  }
+
+  private @NonNull Session openSession(
+      final @NonNull SessionConfig config,
+      final @Nullable UnitOfWorkBookmarks bookmarks) {
+    final var session = new TrackedSession(this, this.driver.session(withBookmarks(config, bookmarks)));
+    this.openSessions.add(session);
+    this.sessionsOpened.increment();
+    return session;
+  }
+
+  /**
+   * Opens an async session using this runtime configuration, it is up to the caller to close it.
+   */
+  public @NonNull AsyncSession openAsyncSession() {
+    return this.driver.session(AsyncSession.class, withBookmarks(this.sessionConfig, currentBookmarks()));
+  }
+
+  /**
+   * Opens an async session pulling {@code fetchSize} records per batch ({@code 0} keeps the runtime fetch size), it is
+   * up to the caller to close it.
+   */
+  public @NonNull AsyncSession openAsyncSession(final @NonNegative long fetchSize) {
+    return this.driver.session(AsyncSession.class, withBookmarks(sessionConfig(AccessMode.WRITE, fetchSize), currentBookmarks()));
+  }
+
+  /**
+   * Opens a reactive session using this runtime configuration, it is up to the caller to close it.
+   */
+  public @NonNull ReactiveSession openReactiveSession() {
+    return this.driver.session(ReactiveSession.class, withBookmarks(this.sessionConfig, currentBookmarks()));
+  }
+
+  /**
+   * Opens a reactive session pulling {@code fetchSize} records per batch ({@code 0} keeps the runtime fetch size), it
+   * is up to the caller to close it.
+   */
+  public @NonNull ReactiveSession openReactiveSession(final @NonNegative long fetchSize) {
+    return openReactiveSession(fetchSize, currentBookmarks());
+  }
+
+  /**
+   * Used by {@link Neo4jReactive}, as reactive sessions are opened on subscription, out of the unit of work scope.
+   */
+  @NonNull ReactiveSession openReactiveSession(
+      final @NonNegative long fetchSize,
+      final @Nullable UnitOfWorkBookmarks bookmarks) {
+    return this.driver.session(ReactiveSession.class, withBookmarks(sessionConfig(AccessMode.WRITE, fetchSize), bookmarks));
+  }
+
+  /**
+   * Session configs are cached by fetch size, as generated query methods use a handful of distinct values.
+   */
+  private @NonNull SessionConfig sessionConfig(
+      final @NonNull AccessMode accessMode,
+      final @NonNegative long fetchSize) {
+    final var base = accessMode == AccessMode.READ ? this.readSessionConfig : this.sessionConfig;
+    if (fetchSize == 0 || base.fetchSize().orElse(0L) == fetchSize) {
+      return base;
+    }
+    final var configs = accessMode == AccessMode.READ ? this.readSessionConfigsByFetchSize : this.sessionConfigsByFetchSize;
+    return configs.computeIfAbsent(fetchSize, size -> copyOf(base).withFetchSize(size).build());
+  }
+
+  private static @NonNull SessionConfig withBookmarks(
+      final @NonNull SessionConfig base,
+      final @Nullable UnitOfWorkBookmarks bookmarks) {
+    return bookmarks == null ? base : bookmarks.sessionConfig(base);
+  }
+
+  /**
+   * @return builder of session configs with every setting of {@code base}, the only place where they are copied so
+   * derived configs do not lose any of them.
+   */
+  static SessionConfig.@NonNull Builder copyOf(final @NonNull SessionConfig base) {
+    final var config = SessionConfig.builder()
+        .withDefaultAccessMode(base.defaultAccessMode())
+        .withBookmarks(base.bookmarks())
+        .withNotificationConfig(base.notificationConfig());
+    base.database().ifPresent(config::withDatabase);
+    base.fetchSize().ifPresent(config::withFetchSize);
+    base.impersonatedUser().ifPresent(config::withImpersonatedUser);
+    base.bookmarkManager().ifPresent(config::withBookmarkManager);
+    return config;
+  }
+
+  void released(final @NonNull TrackedSession session) {
+    this.openSessions.remove(session);
+    this.sessionsClosed.increment();
+    if (session.wasReportedAsLeaked()) {
+      LOGGER.info("session opened by {} and reported as leaked was finally closed", session.owner());
+    }
+  }
+
+  /**
+   * Reports every session open for longer than the configured leak threshold, each session is reported once.
+   *
+   * @return amount of sessions reported as leaked by this call.
+   */
+  public @NonNegative int detectLeaks() {
+    final var now = System.nanoTime();
+    final var threshold = this.leakThreshold.toNanos();
+    var leaks = 0;
+    for (final var session : this.openSessions) {
+      final var age = now - session.openedAt();
+      if (age > threshold && session.markAsLeaked()) {
+        leaks++;
+        this.sessionsLeaked.increment();
+        LOGGER.warn("session opened by {} has been open for {}ms, it was probably leaked",
+            session.owner(), TimeUnit.NANOSECONDS.toMillis(age));
+      }
+    }
+    return leaks;
+  }
+
+  private void detectLeaksEvery(final @NonNull Duration interval) {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Thread.sleep(interval);
+        detectLeaks();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public @NonNull PoolMetrics metrics() {
+    final Collection<@NonNull ConnectionPoolMetrics> connectionPools;
+    if (this.driver.isMetricsEnabled()) {
+      connectionPools = List.copyOf(this.driver.metrics().connectionPoolMetrics());
+    } else {
+      connectionPools = List.of();
+    }
+    return new PoolMetrics(
+        this.sessionsOpened.sum(),
+        this.sessionsClosed.sum(),
+        this.openSessions.size(),
+        this.sessionsLeaked.sum(),
+        connectionPools);
+  }
+
+  @Nullable SlowQueryLog slowQueryLog() {
+    return this.slowQueryLog;
+  }
+
+  /**
+   * @return slow queries still kept by the slow query log, oldest first; empty when no slow query threshold was
+   * configured.
+   */
+  public @NonNull List<@NonNull SlowQuery> slowQueries() {
+    final var log = this.slowQueryLog;
+    return log == null ? List.of() : log.entries();
+  }
+
+  /**
+   * Stops the leak detector, and closes the driver when it was created by this runtime.
+   */
+  @Override
+  public void close() {
+    if (this.leakDetector != null) {
+      this.leakDetector.interrupt();
+    }
+    if (!this.openSessions.isEmpty()) {
+      LOGGER.warn("closing runtime with {} sessions still open", this.openSessions.size());
+    }
+    if (this.ownsDriver) {
+      this.driver.close();
+    }
+  }
+
+  /**
+   * Snapshot of the sessions handed out by a runtime, and of the driver connection pools when driver metrics are enabled.
+   */
+  public record PoolMetrics(
+      long sessionsOpened,
+      long sessionsClosed,
+      int sessionsInUse,
+      long sessionsLeaked,
+      @NonNull Collection<@NonNull ConnectionPoolMetrics> connectionPools) {
+  }
+
+  public static final class Builder {
+    private final @Nullable Driver driver;
+    private final @Nullable String uri;
+    private final @Nullable AuthToken authToken;
+    private @Nullable String database;
+    private long fetchSize;
+    private int maxConnectionPoolSize;
+    private @NonNull Duration leakThreshold = Duration.ofMinutes(5);
+    private @Nullable Duration leakDetectionInterval;
+    private @Nullable Duration slowQueryThreshold;
+    private int slowQueryLogSize = 256;
+    private boolean profileSlowQueries;
+    private boolean causalConsistency = true;
+
+    Builder(final @NonNull Driver driver) {
+      this.driver = driver;
+      this.uri = null;
+      this.authToken = null;
+    }
+
+    Builder(
+        final @NonNull String uri,
+        final @NonNull AuthToken authToken) {
+      this.driver = null;
+      this.uri = uri;
+      this.authToken = authToken;
+    }
+
+    public @NonNull Builder database(final @NonNull String name) {
+      this.database = name;
+      return this;
+    }
+
+    public @NonNull Builder fetchSize(final long value) {
+      this.fetchSize = value;
+      return this;
+    }
+
+    /**
+     * Only honored when the runtime creates its own driver.
+     */
+    public @NonNull Builder maxConnectionPoolSize(final int value) {
+      this.maxConnectionPoolSize = value;
+      return this;
+    }
+
+    public @NonNull Builder leakThreshold(final @NonNull Duration value) {
+      this.leakThreshold = value;
+      return this;
+    }
+
+    public @NonNull Builder detectLeaksEvery(final @NonNull Duration interval) {
+      this.leakDetectionInterval = interval;
+      return this;
+    }
+
+    /**
+     * Sync and cursor query executions taking at least {@code value} are kept at the slow query log of the runtime.
+     */
+    public @NonNull Builder slowQueryThreshold(final @NonNull Duration value) {
+      this.slowQueryThreshold = value;
+      return this;
+    }
+
+    /**
+     * Amount of slow queries kept, 256 by default.
+     */
+    public @NonNull Builder slowQueryLogSize(final int value) {
+      this.slowQueryLogSize = value;
+      return this;
+    }
+
+    /**
+     * Captures the plan of every slow query in a background virtual thread: read queries are re-run with
+     * {@code PROFILE} (in a transaction that is rolled back), write queries are only planned with {@code EXPLAIN}.
+     */
+    public @NonNull Builder profileSlowQueries(final boolean value) {
+      this.profileSlowQueries = value;
+      return this;
+    }
+
+    /**
+     * Shares bookmarks between the sessions of each unit of work, enabled by default. Disable it only when reads may
+     * be stale, as read transactions will not wait for read replicas to catch up.
+     */
+    public @NonNull Builder causalConsistency(final boolean value) {
+      this.causalConsistency = value;
+      return this;
+    }
+
+    public @NonNull Neo4jRuntime build() {
+      final var threshold = this.slowQueryThreshold;
+      return new Neo4jRuntime(
+          driver(),
+          this.driver == null,
+          sessionConfig(AccessMode.WRITE),
+          sessionConfig(AccessMode.READ),
+          this.leakThreshold, this.leakDetectionInterval,
+          threshold == null ? null : new SlowQueryLog(threshold, this.slowQueryLogSize, this.profileSlowQueries),
+          this.causalConsistency);
+    }
+
+    private @NonNull Driver driver() {
+      if (this.driver != null) {
+        return this.driver;
+      }
+      if (this.uri == null || this.authToken == null) {
+        throw new IllegalStateException("driver or connection details are required");
+      }
+      final var config = Config.builder().withDriverMetrics();
+      if (this.maxConnectionPoolSize > 0) {
+        config.withMaxConnectionPoolSize(this.maxConnectionPoolSize);
+      }
+      return GraphDatabase.driver(this.uri, this.authToken, config.build());
+    }
+
+    private @NonNull SessionConfig sessionConfig(final @NonNull AccessMode accessMode) {
+      final var config = SessionConfig.builder().withDefaultAccessMode(accessMode);
+      if (this.database != null) {
+        config.withDatabase(this.database);
+      }
+      if (this.fetchSize > 0) {
+        config.withFetchSize(this.fetchSize);
+      }
+      return config.build();
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.support.ClassNotInstantiable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.TransactionContext;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Units of work executed in a single transaction.
+ * <p>
+ * Every generated query method executed inside {@link #inRead(Supplier)} or {@link #inWrite(Supplier)} runs its query
+ * in the transaction opened by them, so composite operations are committed once instead of once per query.
+ */
+public final class Neo4jTx {
+  static final @NonNull ScopedValue<@NonNull Ambient> $ = ScopedValue.newInstance();
+
+  private Neo4jTx() {
+    throw new ClassNotInstantiable(Neo4jTx.class);
+  }
+
+  /**
+   * @return {@code true} when a transaction opened by {@link Neo4jTx} is bound to current scope.
+   */
+  public static boolean isActive() {
+    return $.isBound();
+  }
+
+  public static <T> T inRead(final @NonNull Supplier<T> work) {
+    if ($.isBound()) {
+      return work.get();
+    }
+    return CurrentSession.get().executeRead(tx -> ScopedValue.where($, new Ambient(tx, Mode.READ, Set.of())).get(work));
+  }
+
+  public static void inRead(final @NonNull Runnable work) {
+    Neo4jTx.<@Nullable Void>inRead(() -> {
+      work.run();
+      return null;
+    });
+  }
+
+  public static <T> T inWrite(final @NonNull Supplier<T> work) {
+    if (ambientAllowsWrites()) {
+      return work.get();
+    }
+    final var invalidated = ConcurrentHashMap.<@NonNull String>newKeySet();
+    final var result = CurrentSession.get().executeWrite(tx -> ScopedValue.where($, new Ambient(tx, Mode.WRITE, invalidated)).get(work));
+    if (!invalidated.isEmpty()) {
+      QueryCache.invalidate(invalidated);
+    }
+    return result;
+  }
+
+  public static void inWrite(final @NonNull Runnable work) {
+    Neo4jTx.<@Nullable Void>inWrite(() -> {
+      work.run();
+      return null;
+    });
+  }
+
+  /**
+   * Used by generated code, executes {@code callback} in the transaction bound to current scope, or in a new read
+   * transaction of the current session when there is none.
+   */
+  public static <T> T executeRead(final @NonNull TransactionCallback<T> callback) {
+    return executeRead(QueryOptions.DEFAULT, callback);
+  }
+
+  /**
+   * Used by generated code, executes {@code callback} in the transaction bound to current scope, or in a new read
+   * transaction configured by {@code options} when there is none.
+   */
+  public static <T> T executeRead(
+      final @NonNull QueryOptions options,
+      final @NonNull TransactionCallback<T> callback) {
+    final var work = watched(options, callback);
+    return Metered.measure(options, () -> {
+      if ($.isBound()) {
+        return work.execute($.get().tx());
+      }
+      return inSessionFor(options, AccessMode.READ, session -> {
+        final var retry = options.retry();
+        return retry == null ? session.executeRead(work, options.txConfig()) : retry.execute(options, session, work);
+      });
+    });
+  }
+
+  /**
+   * Used by generated code, executes {@code callback} in the transaction bound to current scope, or in a new write
+   * transaction of the current session when there is none.
+   */
+  public static <T> T executeWrite(final @NonNull TransactionCallback<T> callback) {
+    return executeWrite(QueryOptions.DEFAULT, callback);
+  }
+
+  /**
+   * Used by generated code, executes {@code callback} in the transaction bound to current scope, or in a new write
+   * transaction configured by {@code options} when there is none.
+   */
+  public static <T> T executeWrite(
+      final @NonNull QueryOptions options,
+      final @NonNull TransactionCallback<T> callback) {
+    final var work = watched(options, callback);
+    return Metered.measure(options, () -> {
+      if (ambientAllowsWrites()) {
+        return work.execute($.get().tx());
+      }
+      return inSessionFor(options, AccessMode.WRITE, session -> {
+        final var retry = options.retry();
+        return retry == null ? session.executeWrite(work, options.txConfig()) : retry.execute(options, session, work);
+      });
+    });
+  }
+
+  private static <T> @NonNull TransactionCallback<T> watched(
+      final @NonNull QueryOptions options,
+      final @NonNull TransactionCallback<T> callback) {
+    final var slowQueries = SlowQueryLog.current();
+    return slowQueries == null || options == QueryOptions.DEFAULT ? callback : slowQueries.watching(options, callback);
+  }
+
+  /**
+   * Fetch size and the access mode of explicit transactions (used by queries with a retry policy of their own) are
+   * session settings, so those queries are executed in the session of the unit of work with those settings, kept open
+   * until it completes; otherwise (or without runtime) the current session is used.
+   */
+  private static <T> T inSessionFor(
+      final @NonNull QueryOptions options,
+      final @NonNull AccessMode accessMode,
+      final @NonNull Function<@NonNull Session, T> work) {
+    final var retry = options.retry() != null;
+    if ((options.hasFetchSize() || retry) && UnitOfWorkSessions.$.isBound()) {
+      // without explicit transactions the access mode of the session does not matter
+      return work.apply(UnitOfWorkSessions.$.get().session(retry ? accessMode : AccessMode.WRITE, options.fetchSize()));
+    }
+    return work.apply(CurrentSession.get());
+  }
+
+  static boolean isWriting() {
+    return $.isBound() && $.get().mode() == Mode.WRITE;
+  }
+
+  /**
+   * Registers {@code queries} to be invalidated again at {@link QueryCache} once the ambient write transaction commits.
+   */
+  static void invalidateOnCommit(final @NonNull Collection<@NonNull String> queries) {
+    if (isWriting()) {
+      $.get().invalidated().addAll(queries);
+    }
+  }
+
+  static boolean ambientAllowsWrites() {
+    if (!$.isBound()) {
+      return false;
+    }
+    if ($.get().mode() == Mode.READ) {
+      throw new IllegalStateException("write queries can not be executed inside a read transaction, use Neo4jTx.inWrite");
+    }
+    return true;
+  }
+
+  enum Mode {READ, WRITE}
+
+  record Ambient(
+      @NonNull TransactionContext tx,
+      @NonNull Mode mode,
+      @NonNull Set<@NonNull String> invalidated) {
+  }
+}
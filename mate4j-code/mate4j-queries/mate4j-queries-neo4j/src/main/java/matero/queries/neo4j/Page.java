@@ -0,0 +1,185 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.exceptions.value.ValueException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Rows of a {@code @Paged} query method, {@link #next()} is the continuation token of the following page or
+ * {@code null} when this is the last one.
+ * <p>
+ * Tokens are opaque, they encode the sort keys of the last row of the page.
+ */
+public record Page<T>(
+    @NonNull List<T> items,
+    @Nullable String next) {
+
+  /**
+   * Column holding the i-th sort key of every row, added by the processor to the {@code RETURN} clause.
+   */
+  static final @NonNull String KEY = "__key";
+
+  public boolean hasNext() {
+    return this.next != null;
+  }
+
+  /**
+   * Used by generated code, collects up to {@code size} rows of {@code result} (which is limited to {@code size + 1}
+   * rows, to know if there is a next page).
+   */
+  public static <T> @NonNull Page<T> of(
+      final @NonNull Result result,
+      final @Positive int size,
+      final @Positive int keys,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    final var items = new java.util.ArrayList<T>(size);
+    while (result.hasNext()) {
+      final var record = result.next();
+      items.add(mapper.apply(record));
+      if (items.size() == size) {
+        return new Page<>(Collections.unmodifiableList(items), result.hasNext() ? tokenOf(record, keys) : null);
+      }
+    }
+    return new Page<>(Collections.unmodifiableList(items), null);
+  }
+
+  /**
+   * Used by generated code, decodes the sort keys of the last row of the previous page.
+   *
+   * @return the sort keys encoded at {@code token}, or an empty list for the first page ({@code token} is
+   * {@code null}).
+   * @throws IllegalArgumentException when {@code token} was not generated for a query with {@code keys} sort keys.
+   */
+  public static @NonNull List<@Nullable Object> keysOf(
+      final @Nullable String token,
+      final @Positive int keys) {
+    if (token == null) {
+      return List.of();
+    }
+    final String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException("invalid page token", e);
+    }
+    final var values = new java.util.ArrayList<@Nullable Object>(keys);
+    var at = 0;
+    try {
+      while (at < decoded.length()) {
+        final var tag = decoded.charAt(at);
+        final var colon = decoded.indexOf(':', at + 1);
+        final var start = colon + 1;
+        final var end = start + Integer.parseInt(decoded, at + 1, colon, 10);
+        values.add(decode(tag, decoded.substring(start, end)));
+        at = end;
+      }
+    } catch (final RuntimeException e) {
+      throw new IllegalArgumentException("invalid page token", e);
+    }
+    if (values.size() != keys) {
+      throw new IllegalArgumentException("invalid page token, it has " + values.size() + " sort keys but " + keys + " are required");
+    }
+    return Collections.unmodifiableList(values);
+  }
+
+  private static @NonNull String tokenOf(
+      final @NonNull Record record,
+      final @Positive int keys) {
+    final var token = new StringBuilder();
+    for (var i = 0; i < keys; i++) {
+      encode(record.get(KEY + i), token);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void encode(
+      final @NonNull Value value,
+      final @NonNull StringBuilder token) {
+    final var key = value.asObject();
+    final char tag;
+    if (key == null) {
+      tag = 'N';
+    } else if (key instanceof Long) {
+      tag = 'L';
+    } else if (key instanceof Double) {
+      tag = 'D';
+    } else if (key instanceof String) {
+      tag = 'S';
+    } else if (key instanceof Boolean) {
+      tag = 'B';
+    } else if (key instanceof LocalDate) {
+      tag = 'd';
+    } else if (key instanceof LocalTime) {
+      tag = 't';
+    } else if (key instanceof LocalDateTime) {
+      tag = 'l';
+    } else if (key instanceof OffsetTime) {
+      tag = 'o';
+    } else if (key instanceof ZonedDateTime) {
+      tag = 'z';
+    } else {
+      throw new ValueException(value.type().name() + " values can not be used as page sort keys");
+    }
+    final var text = key == null ? "" : key.toString();
+    token.append(tag).append(text.length()).append(':').append(text);
+  }
+
+  private static @Nullable Object decode(
+      final char tag,
+      final @NonNull String text) {
+    return switch (tag) {
+      case 'N' -> null;
+      case 'L' -> Long.valueOf(text);
+      case 'D' -> Double.valueOf(text);
+      case 'S' -> text;
+      case 'B' -> Boolean.valueOf(text);
+      case 'd' -> LocalDate.parse(text);
+      case 't' -> LocalTime.parse(text);
+      case 'l' -> LocalDateTime.parse(text);
+      case 'o' -> OffsetTime.parse(text);
+      case 'z' -> ZonedDateTime.parse(text);
+      default -> throw new IllegalArgumentException("unknown sort key type " + tag);
+    };
+  }
+}
\ No newline at end of file
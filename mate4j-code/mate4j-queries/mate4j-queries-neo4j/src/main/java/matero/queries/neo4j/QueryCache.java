@@ -0,0 +1,179 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of a {@code @Cached} query method, generated implementations hold one per cached method.
+ * <p>
+ * Every {@code @Queries} interface has a generation, incremented each time one of its write query methods completes.
+ * Entries remember the generation they were loaded at and are discarded once it changes, so invalidation costs a
+ * single increment no matter how many entries or caches exist, and a load racing with a write is never served.
+ * <p>
+ * The amount of entries is bounded approximately: when {@code maxEntries} is reached, expired or invalidated entries
+ * are dropped first and then arbitrary ones. Queries executed inside an ambient write transaction bypass the cache,
+ * as they can see uncommitted changes.
+ * <p>
+ * Cached results are shared by every caller, so {@link List} and {@link Map} results are cached (and returned) as
+ * unmodifiable views.
+ */
+public final class QueryCache<V extends @Nullable Object> {
+  private static final @NonNull ConcurrentHashMap<@NonNull String, @NonNull AtomicLong> GENERATIONS = new ConcurrentHashMap<>();
+  private static final @NonNull Object NO_PARAMETERS = new Object();
+  private static final @NonNull Object NULL = new Object();
+
+  private final @NonNull AtomicLong generation;
+  private final long ttl;
+  private final @Positive int maxEntries;
+  private final @NonNull ConcurrentHashMap<@NonNull Object, @NonNull Entry<V>> entries;
+
+  /**
+   * @param queries qualified name of the {@code @Queries} interface declaring the cached method.
+   */
+  public QueryCache(
+      final @NonNull String queries,
+      final @NonNull Duration ttl,
+      final @Positive int maxEntries) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl must be positive");
+    }
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.generation = generationOf(queries);
+    this.ttl = ttl.toNanos();
+    this.maxEntries = maxEntries;
+    this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+  }
+
+  /**
+   * @return the cached result for {@code key}, or the one produced by {@code loader} when there is none.
+   */
+  public V get(
+      final @NonNull Object key,
+      final @NonNull Supplier<V> loader) {
+    if (Neo4jTx.isWriting()) {
+      return loader.get();
+    }
+    final var loadedAt = this.generation.get();
+    final var entry = this.entries.get(key);
+    if (entry != null && entry.generation == loadedAt && System.nanoTime() - entry.expiresAt < 0) {
+      return entry.value;
+    }
+    final var value = shareable(loader.get());
+    if (this.entries.size() >= this.maxEntries && !this.entries.containsKey(key)) {
+      evict();
+    }
+    this.entries.put(key, new Entry<>(value, loadedAt, System.nanoTime() + this.ttl));
+    return value;
+  }
+
+  /**
+   * Loaded collections are only referenced by the cache, so unmodifiable views of them can not be changed by anyone.
+   */
+  @SuppressWarnings("unchecked")
+  private static <V extends @Nullable Object> V shareable(final V value) {
+    if (value instanceof List<?> list) {
+      return (V) Collections.unmodifiableList(list);
+    }
+    if (value instanceof Map<?, ?> map) {
+      return (V) Collections.unmodifiableMap(map);
+    }
+    return value;
+  }
+
+  private void evict() {
+    final var current = this.generation.get();
+    final var now = System.nanoTime();
+    this.entries.values().removeIf(entry -> entry.generation != current || now - entry.expiresAt >= 0);
+    final var keys = this.entries.keySet().iterator();
+    while (this.entries.size() >= this.maxEntries && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  public int size() {
+    return this.entries.size();
+  }
+
+  public void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * Discards the cached results of every {@code @Queries} interface named at {@code queries}.
+   * <p>
+   * Inside an ambient write transaction they are discarded again once it is committed, so results read by other
+   * transactions before the commit are not served afterwards.
+   */
+  public static void invalidate(final @NonNull String @NonNull ... queries) {
+    invalidate(Arrays.asList(queries));
+  }
+
+  static void invalidate(final @NonNull Collection<@NonNull String> queries) {
+    for (final var name : queries) {
+      generationOf(name).incrementAndGet();
+    }
+    Neo4jTx.invalidateOnCommit(queries);
+  }
+
+  private static @NonNull AtomicLong generationOf(final @NonNull String queries) {
+    return GENERATIONS.computeIfAbsent(queries, name -> new AtomicLong());
+  }
+
+  public static @NonNull Object keyOf() {
+    return NO_PARAMETERS;
+  }
+
+  public static @NonNull Object keyOf(final @Nullable Object parameter) {
+    return parameter == null ? NULL : parameter;
+  }
+
+  public static @NonNull Object keyOf(final @Nullable Object @NonNull ... parameters) {
+    return Arrays.asList(parameters);
+  }
+
+  private record Entry<V extends @Nullable Object>(
+      V value,
+      long generation,
+      long expiresAt) {
+  }
+}
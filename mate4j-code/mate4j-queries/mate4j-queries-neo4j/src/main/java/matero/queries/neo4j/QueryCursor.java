@@ -0,0 +1,109 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iteration over the rows of a query, the transaction used to execute it is kept open until the last row is read
+ * or the cursor is closed.
+ * <p>
+ * Rows are pulled from the server in fetch size batches while iterating, so a cursor that is not fully consumed must be
+ * closed (usually with try-with-resources) to release its transaction and session. Closing it again has no effect.
+ */
+public interface QueryCursor<T>
+    extends AutoCloseable, Iterator<T> {
+
+  @Override
+  void close();
+
+  /**
+   * @return a sequential stream over remaining rows, closing the stream closes this cursor.
+   */
+  default @NonNull Stream<T> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+        .onClose(this::close);
+  }
+
+  /**
+   * Used by generated code, opens a cursor over {@code query} rows in the transaction bound to current scope, or in a
+   * new read transaction when there is none.
+   */
+  static <T> @NonNull QueryCursor<T> executeRead(
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    return executeRead(QueryOptions.DEFAULT, query, mapper);
+  }
+
+  /**
+   * Used by generated code, opens a cursor over {@code query} rows in the transaction bound to current scope, or in a
+   * new read transaction configured by {@code options} when there is none.
+   */
+  static <T> @NonNull QueryCursor<T> executeRead(
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    if (Neo4jTx.isActive()) {
+      return TransactionalCursor.inAmbientTransaction(options, query, mapper);
+    }
+    return TransactionalCursor.inOwnTransaction(AccessMode.READ, options, query, mapper);
+  }
+
+  /**
+   * Used by generated code, opens a cursor over {@code query} rows in the transaction bound to current scope, or in a
+   * new write transaction when there is none.
+   */
+  static <T> @NonNull QueryCursor<T> executeWrite(
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    return executeWrite(QueryOptions.DEFAULT, query, mapper);
+  }
+
+  /**
+   * Used by generated code, opens a cursor over {@code query} rows in the transaction bound to current scope, or in a
+   * new write transaction configured by {@code options} when there is none.
+   */
+  static <T> @NonNull QueryCursor<T> executeWrite(
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    if (Neo4jTx.ambientAllowsWrites()) {
+      return TransactionalCursor.inAmbientTransaction(options, query, mapper);
+    }
+    return TransactionalCursor.inOwnTransaction(AccessMode.WRITE, options, query, mapper);
+  }
+}
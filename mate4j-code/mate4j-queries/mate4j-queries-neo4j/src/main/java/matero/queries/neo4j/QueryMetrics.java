@@ -0,0 +1,99 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ServiceLoader;
+
+/**
+ * Receives the outcome of every execution of a generated query method.
+ * <p>
+ * The instance in use is resolved once, the first time a query is executed: the first implementation registered for
+ * {@link ServiceLoader}, or a {@link HistogramQueryMetrics} when there is none. Setting system property
+ * {@value #PROPERTY} to {@code none} installs {@link #NOOP}; as the installed instance is a constant, the JIT folds
+ * away every metrics related branch (including reading the clock) of query executions.
+ * <p>
+ * Implementations are called by the thread completing each execution, so they must be thread safe, fast and must not
+ * throw.
+ */
+public interface QueryMetrics {
+  /**
+   * System property used to disable metrics.
+   */
+  @NonNull String PROPERTY = "mate4j.queries.metrics";
+
+  /**
+   * Metrics discarding every execution.
+   */
+  @NonNull QueryMetrics NOOP = (query, rows, elapsedNanos, outcome) -> {
+  };
+
+  /**
+   * Notifies an execution of {@code query} completed.
+   *
+   * @param query        options of the executed query method, identifying its interface, method and access mode.
+   * @param rows         rows returned to the caller, {@code 0} when the query failed or returns no rows.
+   * @param elapsedNanos from the query method invocation until its result was available, or until its cursor or
+   *                     publisher completed for lazy results.
+   * @param outcome      of the execution.
+   */
+  void executed(
+      @NonNull QueryOptions query,
+      long rows,
+      long elapsedNanos,
+      @NonNull Outcome outcome);
+
+  /**
+   * Notifies a transaction of {@code query} failed with a transient {@code failure} at its {@code attempt}, and it is
+   * retried as configured by its {@code @Retry} policy.
+   */
+  default void retried(
+      final @NonNull QueryOptions query,
+      final int attempt,
+      final @NonNull RuntimeException failure) {
+  }
+
+  /**
+   * Notifies the {@code @Retry} policy of {@code query} gave up after {@code attempts} transactions, the last one failed
+   * with transient {@code failure}.
+   */
+  default void gaveUp(
+      final @NonNull QueryOptions query,
+      final int attempts,
+      final @NonNull RuntimeException failure) {
+  }
+
+  /**
+   * @return metrics notified of query executions.
+   */
+  static @NonNull QueryMetrics installed() {
+    return Metered.INSTALLED;
+  }
+
+  enum Outcome {SUCCESS, FAILURE}
+}
@@ -0,0 +1,85 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.TransactionConfig;
+
+/**
+ * Execution options of a generated query method, computed once per method when its implementation is loaded.
+ *
+ * @param queries    qualified name of the {@code @Queries} interface declaring the query method.
+ * @param method     name of the query method.
+ * @param accessMode of the transactions executing the query.
+ * @param txConfig   used by transactions opened to execute the query, ignored when executed in an ambient
+ *                   {@link Neo4jTx} transaction.
+ * @param fetchSize  records pulled per batch, {@code 0} uses the fetch size configured for the runtime.
+ * @param retry      policy of the transactions opened to execute the query, {@code null} uses the driver one.
+ */
+public record QueryOptions(
+    @NonNull String queries,
+    @NonNull String method,
+    @NonNull AccessMode accessMode,
+    @NonNull TransactionConfig txConfig,
+    @NonNegative long fetchSize,
+    @Nullable RetryPolicy retry) {
+
+  /**
+   * Options used by code generated before query methods had options of their own, queries executed with them are not
+   * reported to {@link QueryMetrics}.
+   */
+  public static final @NonNull QueryOptions DEFAULT = new QueryOptions("", "", AccessMode.WRITE, TransactionConfig.empty(), 0);
+
+  public QueryOptions {
+    if (fetchSize < 0) {
+      throw new IllegalArgumentException("fetchSize can not be negative");
+    }
+  }
+
+  public QueryOptions(
+      final @NonNull String queries,
+      final @NonNull String method,
+      final @NonNull AccessMode accessMode,
+      final @NonNull TransactionConfig txConfig,
+      final @NonNegative long fetchSize) {
+    this(queries, method, accessMode, txConfig, fetchSize, null);
+  }
+
+  /**
+   * @return qualified name of the query method, as {@code <queries>.<method>}.
+   */
+  public @NonNull String name() {
+    return this.queries + '.' + this.method;
+  }
+
+  boolean hasFetchSize() {
+    return this.fetchSize > 0;
+  }
+}
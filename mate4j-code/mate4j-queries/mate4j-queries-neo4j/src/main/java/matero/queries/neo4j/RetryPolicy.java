@@ -0,0 +1,161 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.TransactionContext;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.exceptions.RetryableException;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Retry policy of a {@code @Retry} query method, its transactions are explicit ones (so the retry policy of the
+ * driver does not apply) retried while they fail with {@link RetryableException}s (deadlocks and other transient
+ * errors, expired sessions, unavailable servers).
+ * <p>
+ * Each wait is jittered by up to 20% of the backoff, so transactions that failed together do not retry together.
+ *
+ * @param maxAttempts      transactions tried, including the first one.
+ * @param maxDurationNanos allowed since the first transaction started until the last retry starts.
+ * @param backoffNanos     waited before the first retry, doubled before every following one.
+ */
+public record RetryPolicy(
+    @Positive int maxAttempts,
+    @Positive long maxDurationNanos,
+    @Positive long backoffNanos) {
+  private static final double JITTER = 0.2;
+
+  public RetryPolicy {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be positive");
+    }
+    if (maxDurationNanos < 1) {
+      throw new IllegalArgumentException("maxDurationNanos must be positive");
+    }
+    if (backoffNanos < 1) {
+      throw new IllegalArgumentException("backoffNanos must be positive");
+    }
+  }
+
+  /**
+   * Executes {@code work} in transactions of {@code session} configured by {@code options}, until one of them commits
+   * or the failure is not retryable, the policy gives up or the thread is interrupted (the last failure is thrown).
+   */
+  <T> T execute(
+      final @NonNull QueryOptions options,
+      final @NonNull Session session,
+      final @NonNull TransactionCallback<T> work) {
+    final var start = System.nanoTime();
+    var backoff = this.backoffNanos;
+    for (var attempt = 1; ; attempt++) {
+      try {
+        return inTransaction(options, session, work);
+      } catch (final RuntimeException failure) {
+        if (!isRetryable(failure)) {
+          throw failure;
+        }
+        final var wait = jittered(backoff);
+        if (attempt >= this.maxAttempts || System.nanoTime() - start + wait > this.maxDurationNanos) {
+          Metered.gaveUp(options, attempt, failure);
+          throw failure;
+        }
+        Metered.retried(options, attempt, failure);
+        LockSupport.parkNanos(wait);
+        if (Thread.currentThread().isInterrupted()) {
+          throw failure;
+        }
+        backoff = backoff > this.maxDurationNanos / 2 ? this.maxDurationNanos : backoff * 2;
+      }
+    }
+  }
+
+  static boolean isRetryable(final @NonNull RuntimeException failure) {
+    return failure instanceof RetryableException;
+  }
+
+  private static long jittered(final long backoff) {
+    return (long) (backoff * ThreadLocalRandom.current().nextDouble(1 - JITTER, 1 + JITTER));
+  }
+
+  private static <T> T inTransaction(
+      final @NonNull QueryOptions options,
+      final @NonNull Session session,
+      final @NonNull TransactionCallback<T> work) {
+    try (final var tx = session.beginTransaction(options.txConfig())) {
+      final var result = work.execute(new ExplicitTransactionContext(tx));
+      tx.commit();
+      return result;
+    }
+  }
+
+  /**
+   * Explicit transaction seen as the context of a managed one, so generated transaction callbacks can run in it.
+   */
+  private record ExplicitTransactionContext(@NonNull Transaction tx)
+      implements TransactionContext {
+    @Override
+    public Result run(
+        final @NonNull String query,
+        final @NonNull Value parameters) {
+      return this.tx.run(query, parameters);
+    }
+
+    @Override
+    public Result run(
+        final @NonNull String query,
+        final @NonNull Map<String, Object> parameters) {
+      return this.tx.run(query, parameters);
+    }
+
+    @Override
+    public Result run(
+        final @NonNull String query,
+        final @NonNull Record parameters) {
+      return this.tx.run(query, parameters);
+    }
+
+    @Override
+    public Result run(final @NonNull String query) {
+      return this.tx.run(query);
+    }
+
+    @Override
+    public Result run(final @NonNull Query query) {
+      return this.tx.run(query);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.exceptions.value.ValueException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Base of the mappers generated for queries returning java records, every component is read from a column index.
+ * <p>
+ * Indexes are resolved from the keys of the first mapped record and reused while records share the same keys, which
+ * is the case for every record of a result. Instances are not thread safe, generated code creates one per execution.
+ */
+public abstract class RowMapper<T>
+    implements Function<@NonNull Record, T> {
+  private final @NonNull String @NonNull [] columns;
+  private @Nullable List<@NonNull String> keys;
+  private int @NonNull [] indexes;
+
+  protected RowMapper(final @NonNull String @NonNull ... columns) {
+    this.columns = columns;
+    this.indexes = new int[columns.length];
+  }
+
+  @Override
+  public final T apply(final @NonNull Record record) {
+    final var recordKeys = record.keys();
+    if (recordKeys != this.keys && !recordKeys.equals(this.keys)) {
+      resolveIndexesFrom(recordKeys);
+    }
+    return map(record, this.indexes);
+  }
+
+  private void resolveIndexesFrom(final @NonNull List<@NonNull String> recordKeys) {
+    for (var i = 0; i < this.columns.length; i++) {
+      final var index = recordKeys.indexOf(this.columns[i]);
+      if (index == -1) {
+        throw new ValueException("column '" + this.columns[i] + "' is not returned by query, available columns are " + recordKeys);
+      }
+      this.indexes[i] = index;
+    }
+    this.keys = recordKeys;
+  }
+
+  /**
+   * @param columns index of each record component column, in declaration order.
+   */
+  protected abstract T map(
+      @NonNull Record record,
+      int @NonNull [] columns);
+}
@@ -0,0 +1,62 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Execution of a query method that took longer than the slow query threshold of its {@link Neo4jRuntime}.
+ *
+ * @param parameters           of the query, redacted: only numbers, booleans and {@code null} are kept as they are,
+ *                             collections are sampled.
+ * @param elapsed              executing the query in its transaction, for cursors until they were closed.
+ * @param resultAvailableAfter reported by the server, {@code null} when unknown.
+ * @param resultConsumedAfter  reported by the server, {@code null} when unknown.
+ * @param plan                 of a {@code PROFILE} re-run of read queries or an {@code EXPLAIN} of write ones,
+ *                             {@code null} until it completes or when profiling is disabled.
+ */
+public record SlowQuery(
+    @NonNull String queries,
+    @NonNull String method,
+    @NonNull String cypher,
+    @NonNull Map<@NonNull String, @Nullable Object> parameters,
+    @NonNull Instant executedAt,
+    @NonNull Duration elapsed,
+    @Nullable Duration resultAvailableAfter,
+    @Nullable Duration resultConsumedAfter,
+    @Nullable String plan) {
+
+  @NonNull SlowQuery withPlan(final @NonNull String plan) {
+    return new SlowQuery(this.queries, this.method, this.cypher, this.parameters, this.executedAt, this.elapsed,
+        this.resultAvailableAfter, this.resultConsumedAfter, plan);
+  }
+}
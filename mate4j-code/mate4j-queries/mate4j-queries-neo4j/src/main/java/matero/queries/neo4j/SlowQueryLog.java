@@ -0,0 +1,260 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.ResultSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer of the {@link SlowQuery slow queries} executed through a {@link Neo4jRuntime}, the oldest ones
+ * are overwritten once it is full.
+ * <p>
+ * When profiling is enabled, each slow read query is executed again prefixed with {@code PROFILE} in a background
+ * virtual thread, in a transaction that is always rolled back. Write queries are only planned with {@code EXPLAIN}, as
+ * executing them again would take their locks and do their work a second time on an already slow server. Only one
+ * profile per query method runs at a time.
+ */
+final class SlowQueryLog {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+  private static final int SAMPLED_ELEMENTS = 3;
+
+  private final long thresholdNanos;
+  private final boolean profile;
+  private final @NonNull AtomicReferenceArray<@Nullable SlowQuery> entries;
+  private final @NonNull AtomicLong appended = new AtomicLong();
+  private final @NonNull Set<@NonNull String> profiling = ConcurrentHashMap.newKeySet();
+
+  SlowQueryLog(
+      final @NonNull Duration threshold,
+      final int capacity,
+      final boolean profile) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("slow query log size must be positive");
+    }
+    this.thresholdNanos = threshold.toNanos();
+    this.profile = profile;
+    this.entries = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * @return slow query log of the runtime bound to current scope, {@code null} when there is none or it is disabled.
+   */
+  static @Nullable SlowQueryLog current() {
+    return Neo4jRuntime.$.isBound() ? Neo4jRuntime.$.get().slowQueryLog() : null;
+  }
+
+  /**
+   * @return {@code callback} logging the last query it executes when it takes longer than the threshold.
+   */
+  <T> @NonNull TransactionCallback<T> watching(
+      final @NonNull QueryOptions options,
+      final @NonNull TransactionCallback<T> callback) {
+    return tx -> {
+      final var start = System.nanoTime();
+      final var watched = new WatchedTransactionContext(tx);
+      final var value = callback.execute(watched);
+      final var elapsed = System.nanoTime() - start;
+      final var query = watched.query();
+      final var result = watched.result();
+      if (elapsed >= this.thresholdNanos && query != null && result != null) {
+        watched(options, query, summaryOf(result), elapsed);
+      }
+      return value;
+    };
+  }
+
+  /**
+   * Logs the execution of {@code query} when {@code elapsedNanos} is over the threshold.
+   */
+  void watched(
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @Nullable ResultSummary summary,
+      final long elapsedNanos) {
+    if (elapsedNanos < this.thresholdNanos) {
+      return;
+    }
+    final var entry = new SlowQuery(
+        options.queries(),
+        options.method(),
+        query.text(),
+        redact(query.parameters().asMap()),
+        Instant.now(),
+        Duration.ofNanos(elapsedNanos),
+        summary == null ? null : durationOf(summary.resultAvailableAfter(TimeUnit.MILLISECONDS)),
+        summary == null ? null : durationOf(summary.resultConsumedAfter(TimeUnit.MILLISECONDS)),
+        null);
+    final var slot = append(entry);
+    LOGGER.warn("slow query {}.{} took {}ms, parameters: {}",
+        entry.queries(), entry.method(), entry.elapsed().toMillis(), entry.parameters());
+    if (this.profile && Neo4jRuntime.$.isBound()) {
+      final var runtime = Neo4jRuntime.$.get();
+      final var name = options.name();
+      if (this.profiling.add(name)) {
+        Thread.ofVirtual().name("mate4j-slow-query-profiler").start(() -> {
+          try {
+            final var plan = planOf(runtime, options, query);
+            this.entries.compareAndSet(slot, entry, entry.withPlan(plan));
+            LOGGER.info("profile of slow query {}:\n{}", name, plan);
+          } catch (final RuntimeException failure) {
+            LOGGER.warn("could not profile slow query {}", name, failure);
+          } finally {
+            this.profiling.remove(name);
+          }
+        });
+      }
+    }
+  }
+
+  private int append(final @NonNull SlowQuery entry) {
+    final var slot = (int) (this.appended.getAndIncrement() % this.entries.length());
+    this.entries.set(slot, entry);
+    return slot;
+  }
+
+  /**
+   * @return logged slow queries, oldest first.
+   */
+  @NonNull List<@NonNull SlowQuery> entries() {
+    final var appended = this.appended.get();
+    final var capacity = this.entries.length();
+    final var logged = new ArrayList<@NonNull SlowQuery>(capacity);
+    for (var i = Math.max(0, appended - capacity); i < appended; i++) {
+      final var entry = this.entries.get((int) (i % capacity));
+      if (entry != null) {
+        logged.add(entry);
+      }
+    }
+    return logged;
+  }
+
+  private static @Nullable ResultSummary summaryOf(final @NonNull Result result) {
+    try {
+      return result.consume();
+    } catch (final RuntimeException failure) {
+      return null;
+    }
+  }
+
+  private static @Nullable Duration durationOf(final long millis) {
+    return millis < 0 ? null : Duration.ofMillis(millis);
+  }
+
+  /**
+   * @return the profiled plan of read queries, or the plan of write queries (which are not executed again).
+   */
+  static @NonNull String planOf(
+      final @NonNull Neo4jRuntime runtime,
+      final @NonNull QueryOptions options,
+      final @NonNull Query query) {
+    final var read = options.accessMode() == AccessMode.READ;
+    try (final var session = runtime.openSession(options.accessMode());
+         final var tx = session.beginTransaction(options.txConfig())) {
+      final var summary = tx.run(new Query((read ? "PROFILE " : "EXPLAIN ") + query.text(), query.parameters())).consume();
+      tx.rollback();
+      final var plan = new StringBuilder();
+      if (summary.hasProfile()) {
+        render(summary.profile(), 0, plan);
+      } else if (summary.hasPlan()) {
+        render(summary.plan(), 0, plan);
+      }
+      return plan.toString();
+    }
+  }
+
+  private static void render(
+      final @NonNull Plan plan,
+      final int depth,
+      final @NonNull StringBuilder out) {
+    out.append("  ".repeat(depth)).append(plan.operatorType());
+    if (plan instanceof ProfiledPlan profiled) {
+      out.append(" (rows=").append(profiled.records())
+          .append(", dbHits=").append(profiled.dbHits())
+          .append(')');
+    }
+    final var details = plan.arguments().get("Details");
+    if (details != null) {
+      out.append(' ').append(details.asString());
+    }
+    out.append('\n');
+    for (final var child : plan.children()) {
+      render(child, depth + 1, out);
+    }
+  }
+
+  static @NonNull Map<@NonNull String, @Nullable Object> redact(final @NonNull Map<@NonNull String, ?> parameters) {
+    final var redacted = new LinkedHashMap<@NonNull String, @Nullable Object>();
+    parameters.forEach((name, value) -> redacted.put(name, redact(value)));
+    return Collections.unmodifiableMap(redacted);
+  }
+
+  private static @Nullable Object redact(final @Nullable Object value) {
+    if (value == null || value instanceof Number || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Map<?, ?> map) {
+      final var redacted = new LinkedHashMap<@NonNull String, @Nullable Object>();
+      map.forEach((key, element) -> redacted.put(String.valueOf(key), redact(element)));
+      return Collections.unmodifiableMap(redacted);
+    }
+    if (value instanceof Collection<?> elements) {
+      final var sample = new ArrayList<@Nullable Object>(SAMPLED_ELEMENTS + 1);
+      for (final var element : elements) {
+        if (sample.size() == SAMPLED_ELEMENTS) {
+          sample.add("... " + (elements.size() - SAMPLED_ELEMENTS) + " more");
+          break;
+        }
+        sample.add(redact(element));
+      }
+      return Collections.unmodifiableList(sample);
+    }
+    return "<" + value.getClass().getSimpleName() + ">";
+  }
+}
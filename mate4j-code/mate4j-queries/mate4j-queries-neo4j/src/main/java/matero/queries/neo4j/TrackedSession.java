@@ -0,0 +1,228 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * {@link Session} handed out by a {@link Neo4jRuntime}, it lets the runtime know when it was opened, who opened it and
+ * when it is closed.
+ */
+final class TrackedSession
+    implements Session {
+  private final @NonNull Neo4jRuntime runtime;
+  private final @NonNull Session target;
+  private final @NonNull String owner;
+  private final long openedAt;
+  private final @NonNull AtomicBoolean open = new AtomicBoolean(true);
+  private final @NonNull AtomicBoolean reportedAsLeaked = new AtomicBoolean(false);
+
+  TrackedSession(
+      final @NonNull Neo4jRuntime runtime,
+      final @NonNull Session target) {
+    this.runtime = runtime;
+    this.target = target;
+    this.owner = Thread.currentThread().toString();
+    this.openedAt = System.nanoTime();
+  }
+
+  @NonNull String owner() {
+    return this.owner;
+  }
+
+  long openedAt() {
+    return this.openedAt;
+  }
+
+  boolean markAsLeaked() {
+    return this.reportedAsLeaked.compareAndSet(false, true);
+  }
+
+  boolean wasReportedAsLeaked() {
+    return this.reportedAsLeaked.get();
+  }
+
+  @Override
+  public Transaction beginTransaction() {
+    return this.target.beginTransaction();
+  }
+
+  @Override
+  public Transaction beginTransaction(final @NonNull TransactionConfig config) {
+    return this.target.beginTransaction(config);
+  }
+
+  @Override
+  @Deprecated
+  public <T> T readTransaction(final @NonNull TransactionWork<T> work) {
+    return this.target.readTransaction(work);
+  }
+
+  @Override
+  public <T> T executeRead(final @NonNull TransactionCallback<T> callback) {
+    return this.target.executeRead(callback);
+  }
+
+  @Override
+  @Deprecated
+  public <T> T readTransaction(
+      final @NonNull TransactionWork<T> work,
+      final @NonNull TransactionConfig config) {
+    return this.target.readTransaction(work, config);
+  }
+
+  @Override
+  public <T> T executeRead(
+      final @NonNull TransactionCallback<T> callback,
+      final @NonNull TransactionConfig config) {
+    return this.target.executeRead(callback, config);
+  }
+
+  @Override
+  @Deprecated
+  public <T> T writeTransaction(final @NonNull TransactionWork<T> work) {
+    return this.target.writeTransaction(work);
+  }
+
+  @Override
+  public <T> T executeWrite(final @NonNull TransactionCallback<T> callback) {
+    return this.target.executeWrite(callback);
+  }
+
+  @Override
+  public void executeWriteWithoutResult(final @NonNull Consumer<TransactionContext> contextConsumer) {
+    this.target.executeWriteWithoutResult(contextConsumer);
+  }
+
+  @Override
+  @Deprecated
+  public <T> T writeTransaction(
+      final @NonNull TransactionWork<T> work,
+      final @NonNull TransactionConfig config) {
+    return this.target.writeTransaction(work, config);
+  }
+
+  @Override
+  public <T> T executeWrite(
+      final @NonNull TransactionCallback<T> callback,
+      final @NonNull TransactionConfig config) {
+    return this.target.executeWrite(callback, config);
+  }
+
+  @Override
+  public void executeWriteWithoutResult(
+      final @NonNull Consumer<TransactionContext> contextConsumer,
+      final @NonNull TransactionConfig config) {
+    this.target.executeWriteWithoutResult(contextConsumer, config);
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull TransactionConfig config) {
+    return this.target.run(query, config);
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Map<String, Object> parameters,
+      final @NonNull TransactionConfig config) {
+    return this.target.run(query, parameters, config);
+  }
+
+  @Override
+  public Result run(
+      final @NonNull Query query,
+      final @NonNull TransactionConfig config) {
+    return this.target.run(query, config);
+  }
+
+  @Override
+  @Deprecated
+  public Bookmark lastBookmark() {
+    return this.target.lastBookmark();
+  }
+
+  @Override
+  public Set<Bookmark> lastBookmarks() {
+    return this.target.lastBookmarks();
+  }
+
+  @Override
+  public void close() {
+    if (this.open.compareAndSet(true, false)) {
+      try {
+        this.target.close();
+      } finally {
+        this.runtime.released(this);
+      }
+    }
+  }
+
+  @Override
+  public boolean isOpen() {
+    return this.open.get() && this.target.isOpen();
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Value parameters) {
+    return this.target.run(query, parameters);
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Map<String, Object> parameters) {
+    return this.target.run(query, parameters);
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final org.neo4j.driver.@NonNull Record parameters) {
+    return this.target.run(query, parameters);
+  }
+
+  @Override
+  public Result run(final @NonNull String query) {
+    return this.target.run(query);
+  }
+
+  @Override
+  public Result run(final @NonNull Query query) {
+    return this.target.run(query);
+  }
+}
@@ -0,0 +1,222 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * {@link QueryCursor} over a {@link Result}, owning the transaction (and session) used to get it unless it was
+ * executed in an ambient {@link Neo4jTx} transaction.
+ * <p>
+ * Owned transactions are committed and released as soon as the last row is read, so fully consumed cursors do not
+ * need to be closed.
+ */
+final class TransactionalCursor<T>
+    implements QueryCursor<T> {
+  private final @Nullable Session session;
+  private final @Nullable Transaction tx;
+  private final @NonNull Result result;
+  private final @NonNull Function<@NonNull Record, T> mapper;
+  private final @NonNull QueryOptions options;
+  private final @NonNull Query query;
+  private final long start;
+  private long rows;
+  private boolean closed;
+  private boolean failed;
+
+  private TransactionalCursor(
+      final @Nullable Session session,
+      final @Nullable Transaction tx,
+      final @NonNull Result result,
+      final @NonNull Function<@NonNull Record, T> mapper,
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final long start) {
+    this.session = session;
+    this.tx = tx;
+    this.result = result;
+    this.mapper = mapper;
+    this.options = options;
+    this.query = query;
+    this.start = start;
+  }
+
+  static <T> @NonNull QueryCursor<T> inAmbientTransaction(
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    final var start = System.nanoTime();
+    final Result result;
+    try {
+      result = Neo4jTx.$.get().tx().run(query);
+    } catch (final RuntimeException failure) {
+      if (!Metered.isOff(options)) {
+        Metered.failed(options, start);
+      }
+      throw failure;
+    }
+    return new TransactionalCursor<>(null, null, result, mapper, options, query, start);
+  }
+
+  static <T> @NonNull QueryCursor<T> inOwnTransaction(
+      final @NonNull AccessMode accessMode,
+      final @NonNull QueryOptions options,
+      final @NonNull Query query,
+      final @NonNull Function<@NonNull Record, T> mapper) {
+    final var start = System.nanoTime();
+    // a session of its own, so the session of current unit of work can keep executing queries while iterating
+    final @Nullable Session session = Neo4jRuntime.$.isBound()
+        ? Neo4jRuntime.$.get().openSession(accessMode, options.fetchSize())
+        : null;
+    @Nullable Transaction tx = null;
+    try {
+      tx = (session == null ? CurrentSession.get() : session).beginTransaction(options.txConfig());
+      return new TransactionalCursor<>(session, tx, tx.run(query), mapper, options, query, start);
+    } catch (final RuntimeException failure) {
+      if (!Metered.isOff(options)) {
+        Metered.failed(options, start);
+      }
+      try {
+        release(session, tx, false);
+      } catch (final RuntimeException releaseFailure) {
+        failure.addSuppressed(releaseFailure);
+      }
+      throw failure;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.closed) {
+      return false;
+    }
+    final boolean hasNext;
+    try {
+      hasNext = this.result.hasNext();
+    } catch (final RuntimeException failure) {
+      this.failed = true;
+      throw failure;
+    }
+    if (!hasNext) {
+      close(); // commits and releases the transaction as soon as rows run out
+    }
+    return hasNext;
+  }
+
+  @Override
+  public T next() {
+    if (this.closed) {
+      throw new NoSuchElementException("cursor is closed");
+    }
+    try {
+      final var row = this.mapper.apply(this.result.next());
+      this.rows++;
+      return row;
+    } catch (final RuntimeException failure) {
+      this.failed = true;
+      throw failure;
+    }
+  }
+
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      if (!this.failed) {
+        final var summary = this.result.consume(); // discards remaining rows
+        final var slowQueries = SlowQueryLog.current();
+        if (slowQueries != null && this.options != QueryOptions.DEFAULT) {
+          slowQueries.watched(this.options, this.query, summary, System.nanoTime() - this.start);
+        }
+      }
+    } catch (final RuntimeException failure) {
+      this.failed = true;
+      throw failure;
+    } finally {
+      closeTransaction();
+    }
+  }
+
+  /**
+   * Ambient transactions are closed by their owner.
+   */
+  private void closeTransaction() {
+    final var tx = this.tx;
+    try {
+      if (tx != null) {
+        release(this.session, tx, !this.failed);
+      }
+    } catch (final RuntimeException failure) {
+      this.failed = true;
+      throw failure;
+    } finally {
+      if (!Metered.isOff(this.options)) {
+        if (this.failed) {
+          Metered.failed(this.options, this.start);
+        } else {
+          Metered.succeeded(this.options, this.rows, this.start);
+        }
+      }
+    }
+  }
+
+  private static void release(
+      final @Nullable Session session,
+      final @Nullable Transaction tx,
+      final boolean commit) {
+    try {
+      if (tx != null) {
+        try {
+          if (commit) {
+            tx.commit();
+          } else {
+            tx.rollback();
+          }
+        } finally {
+          tx.close();
+        }
+      }
+    } finally {
+      if (session != null) {
+        session.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.BookmarkManager;
+import org.neo4j.driver.SessionConfig;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bookmarks shared by the sessions of a unit of work, caching the session configs using them so opening a session
+ * does not build a new config.
+ */
+final class UnitOfWorkBookmarks {
+  private final @NonNull BookmarkManager manager;
+  private final @NonNull ConcurrentHashMap<@NonNull SessionConfig, @NonNull SessionConfig> sessionConfigs = new ConcurrentHashMap<>(4);
+
+  UnitOfWorkBookmarks(final @NonNull BookmarkManager manager) {
+    this.manager = manager;
+  }
+
+  @NonNull BookmarkManager manager() {
+    return this.manager;
+  }
+
+  /**
+   * @return {@code base} sharing the bookmarks of the unit of work.
+   */
+  @NonNull SessionConfig sessionConfig(final @NonNull SessionConfig base) {
+    return this.sessionConfigs.computeIfAbsent(base, b -> Neo4jRuntime.copyOf(b).withBookmarkManager(this.manager).build());
+  }
+}
@@ -0,0 +1,114 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Session;
+
+import java.util.HashMap;
+
+/**
+ * Sessions of a unit of work with settings other than the ones of its {@link CurrentSession} (a fetch size, or the
+ * access mode of explicit transactions), opened on first use and kept until the unit of work completes, so query
+ * methods using them do not open a session per call.
+ * <p>
+ * Like the current session, they are confined to the thread executing the unit of work.
+ */
+final class UnitOfWorkSessions
+    implements AutoCloseable {
+  static final @NonNull ScopedValue<@NonNull UnitOfWorkSessions> $ = ScopedValue.newInstance();
+
+  private final @NonNull Neo4jRuntime runtime;
+  private final @Nullable UnitOfWorkBookmarks bookmarks;
+  private @MonotonicNonNull HashMap<@NonNull Long, @NonNull Session> writeSessions;
+  private @MonotonicNonNull HashMap<@NonNull Long, @NonNull Session> readSessions;
+
+  UnitOfWorkSessions(
+      final @NonNull Neo4jRuntime runtime,
+      final @Nullable UnitOfWorkBookmarks bookmarks) {
+    this.runtime = runtime;
+    this.bookmarks = bookmarks;
+  }
+
+  /**
+   * @return session of the unit of work using {@code accessMode} as default access mode of its explicit transactions
+   * and pulling {@code fetchSize} records per batch ({@code 0} keeps the runtime fetch size).
+   */
+  @NonNull Session session(
+      final @NonNull AccessMode accessMode,
+      final @NonNegative long fetchSize) {
+    final HashMap<@NonNull Long, @NonNull Session> sessions;
+    if (accessMode == AccessMode.READ) {
+      if (this.readSessions == null) {
+        this.readSessions = new HashMap<>(4);
+      }
+      sessions = this.readSessions;
+    } else {
+      if (this.writeSessions == null) {
+        this.writeSessions = new HashMap<>(4);
+      }
+      sessions = this.writeSessions;
+    }
+    var session = sessions.get(fetchSize);
+    if (session == null) {
+      session = this.runtime.openSession(accessMode, fetchSize, this.bookmarks);
+      sessions.put(fetchSize, session);
+    }
+    return session;
+  }
+
+  @Override
+  public void close() {
+    final var failure = close(this.readSessions, close(this.writeSessions, null));
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static @Nullable RuntimeException close(
+      final @Nullable HashMap<@NonNull Long, @NonNull Session> sessions,
+      @Nullable RuntimeException failure) {
+    if (sessions != null) {
+      for (final var session : sessions.values()) {
+        try {
+          session.close();
+        } catch (final RuntimeException e) {
+          if (failure == null) {
+            failure = e;
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+    }
+    return failure;
+  }
+}
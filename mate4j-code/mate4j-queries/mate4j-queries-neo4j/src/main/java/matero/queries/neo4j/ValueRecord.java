@@ -0,0 +1,226 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Entity;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Path;
+import org.neo4j.driver.types.Relationship;
+import org.neo4j.driver.util.Pair;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * {@link Record} reading the entries (or properties) of a map, node or relationship value, used where generated code
+ * returns records nested in other values, so there is no record of the result to return.
+ */
+final class ValueRecord
+    implements Record {
+  private final @NonNull Value value;
+  private final @NonNull List<@NonNull String> keys;
+
+  ValueRecord(final @NonNull Value value) {
+    this.value = value;
+    final var keys = new java.util.ArrayList<@NonNull String>(value.size());
+    value.keys().forEach(keys::add);
+    this.keys = List.copyOf(keys);
+  }
+
+  @Override
+  public @NonNull List<@NonNull String> keys() {
+    return this.keys;
+  }
+
+  @Override
+  public @NonNull List<@NonNull Value> values() {
+    return this.keys.stream().map(this.value::get).toList();
+  }
+
+  @Override
+  public boolean containsKey(final @NonNull String key) {
+    return this.value.containsKey(key);
+  }
+
+  @Override
+  public int index(final @NonNull String key) {
+    final var index = this.keys.indexOf(key);
+    if (index < 0) {
+      throw new NoSuchElementException("Unknown key: " + key);
+    }
+    return index;
+  }
+
+  @Override
+  public @NonNull Value get(final @NonNull String key) {
+    return this.value.get(key);
+  }
+
+  @Override
+  public @NonNull Value get(final int index) {
+    return this.value.get(this.keys.get(index));
+  }
+
+  @Override
+  public int size() {
+    return this.keys.size();
+  }
+
+  @Override
+  public @NonNull List<@NonNull Pair<@NonNull String, @NonNull Value>> fields() {
+    return this.keys.stream().<Pair<@NonNull String, @NonNull Value>>map(key -> new Field(key, this.value.get(key))).toList();
+  }
+
+  @Override
+  public <T> @NonNull Iterable<T> values(final @NonNull Function<@NonNull Value, T> mapFunction) {
+    return this.value.values(mapFunction);
+  }
+
+  @Override
+  public java.util.@NonNull Map<@NonNull String, Object> asMap() {
+    return this.value.asMap();
+  }
+
+  @Override
+  public <T> java.util.@NonNull Map<@NonNull String, T> asMap(final @NonNull Function<@NonNull Value, T> mapFunction) {
+    return this.value.asMap(mapFunction);
+  }
+
+  @Override
+  public Value get(final @NonNull String key, final Value defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public Object get(final @NonNull String key, final Object defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public Number get(final @NonNull String key, final Number defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public Entity get(final @NonNull String key, final Entity defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public Node get(final @NonNull String key, final Node defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public Path get(final @NonNull String key, final Path defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public Relationship get(final @NonNull String key, final Relationship defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public List<Object> get(final @NonNull String key, final List<Object> defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public <T> List<T> get(final @NonNull String key, final List<T> defaultValue, final @NonNull Function<@NonNull Value, T> mapFunc) {
+    return this.value.get(key, defaultValue, mapFunc);
+  }
+
+  @Override
+  public java.util.Map<String, Object> get(final @NonNull String key, final java.util.Map<String, Object> defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public <T> java.util.Map<String, T> get(
+      final @NonNull String key,
+      final java.util.Map<String, T> defaultValue,
+      final @NonNull Function<@NonNull Value, T> mapFunc) {
+    return this.value.get(key, defaultValue, mapFunc);
+  }
+
+  @Override
+  public int get(final @NonNull String key, final int defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public long get(final @NonNull String key, final long defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public boolean get(final @NonNull String key, final boolean defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public String get(final @NonNull String key, final String defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public float get(final @NonNull String key, final float defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public double get(final @NonNull String key, final double defaultValue) {
+    return this.value.get(key, defaultValue);
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object other) {
+    return this == other || other instanceof final Record that && keys().equals(that.keys()) && values().equals(that.values());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * this.keys.hashCode() + values().hashCode();
+  }
+
+  @Override
+  public @NonNull String toString() {
+    return "Record<" + asMap() + '>';
+  }
+
+  private record Field(
+      @NonNull String key,
+      @NonNull Value value)
+      implements Pair<@NonNull String, @NonNull Value> {
+  }
+}
@@ -0,0 +1,93 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.TransactionContext;
+import org.neo4j.driver.Value;
+
+import java.util.Map;
+
+/**
+ * {@link TransactionContext} remembering the last query executed through it, and its result.
+ */
+final class WatchedTransactionContext
+    implements TransactionContext {
+  private final @NonNull TransactionContext target;
+  private @Nullable Query query;
+  private @Nullable Result result;
+
+  WatchedTransactionContext(final @NonNull TransactionContext target) {
+    this.target = target;
+  }
+
+  @Nullable Query query() {
+    return this.query;
+  }
+
+  @Nullable Result result() {
+    return this.result;
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Value parameters) {
+    return run(new Query(query, parameters));
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Map<String, Object> parameters) {
+    return run(new Query(query, parameters));
+  }
+
+  @Override
+  public Result run(
+      final @NonNull String query,
+      final @NonNull Record parameters) {
+    return run(new Query(query, parameters.asMap()));
+  }
+
+  @Override
+  public Result run(final @NonNull String query) {
+    return run(new Query(query));
+  }
+
+  @Override
+  public Result run(final @NonNull Query query) {
+    final var result = this.target.run(query);
+    this.query = query;
+    this.result = result;
+    return result;
+  }
+}
@@ -0,0 +1,170 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Session;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FanOutTest {
+  @Test
+  void forks_should_be_executed_with_sessions_of_their_own() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      runtime.run(() -> {
+        final var owner = CurrentSession.get();
+        try (final var fanOut = runtime.fanOut()) {
+          final var first = fanOut.fork(() -> sessionReturning(1L));
+          final var second = fanOut.fork(() -> sessionReturning(2L));
+          fanOut.join();
+
+          assertThat(first.get()).isEqualTo(1L);
+          assertThat(second.get()).isEqualTo(2L);
+          assertThat(CurrentSession.get()).isSameInstanceAs(owner);
+        } catch (final InterruptedException | TimeoutException e) {
+          throw new AssertionError(e);
+        }
+      });
+
+      final var metrics = runtime.metrics();
+      assertThat(metrics.sessionsOpened()).isEqualTo(3);
+      assertThat(metrics.sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void first_failing_fork_should_cancel_the_others() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final var started = new CountDownLatch(1);
+      final var cancelled = new CountDownLatch(1);
+
+      final var failure = assertThrows(IllegalArgumentException.class, () -> runtime.run(() -> {
+        try (final var fanOut = runtime.fanOut()) {
+          fanOut.fork(() -> sleepUntilCancelled(started, cancelled));
+          fanOut.fork(() -> {
+            started.await();
+            throw new IllegalArgumentException("failed");
+          });
+          fanOut.join();
+        } catch (final InterruptedException | TimeoutException e) {
+          throw new AssertionError(e);
+        }
+      }));
+
+      assertThat(failure).hasMessageThat().isEqualTo("failed");
+      assertThat(cancelled.await(0, TimeUnit.SECONDS)).isTrue();
+      assertThat(runtime.metrics().sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void forks_still_running_at_the_deadline_should_be_cancelled() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final var started = new CountDownLatch(1);
+      final var cancelled = new CountDownLatch(1);
+
+      runtime.run(() -> {
+        CurrentSession.get().run("RETURN 1").consume(); // connects before the deadline starts counting
+        final var fanOut = runtime.fanOut(Duration.ofSeconds(1));
+        fanOut.fork(() -> sleepUntilCancelled(started, cancelled));
+
+        assertThrows(TimeoutException.class, fanOut::join);
+        fanOut.close();
+      });
+
+      assertThat(cancelled.await(0, TimeUnit.SECONDS)).isTrue();
+      final var metrics = runtime.metrics();
+      assertThat(metrics.sessionsOpened()).isEqualTo(2);
+      assertThat(metrics.sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void checked_failures_of_forks_should_be_wrapped() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final var failure = assertThrows(CompletionException.class, () -> runtime.run(() -> {
+        try (final var fanOut = runtime.fanOut()) {
+          fanOut.fork(() -> {
+            throw new IOException("failed");
+          });
+          fanOut.join();
+        } catch (final InterruptedException | TimeoutException e) {
+          throw new AssertionError(e);
+        }
+      }));
+
+      assertThat(failure).hasCauseThat().isInstanceOf(IOException.class);
+      assertThat(failure).hasCauseThat().hasMessageThat().isEqualTo("failed");
+    }
+  }
+
+  @Test
+  void queries_should_NOT_be_forked_inside_transactions() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final var failure = assertThrows(IllegalStateException.class, () -> runtime.run(() -> Neo4jTx.inWrite(() -> {
+        runtime.fanOut().close();
+      })));
+
+      assertThat(failure).hasMessageThat().contains("inside a transaction");
+      assertThat(runtime.metrics().sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  private static long sessionReturning(final long value) {
+    final Session session = CurrentSession.get();
+    return session.executeRead(tx -> tx.run("RETURN $value AS value", Map.of("value", value))
+        .single().get("value").asLong());
+  }
+
+  private static long sleepUntilCancelled(
+      final CountDownLatch started,
+      final CountDownLatch cancelled) throws InterruptedException {
+    CurrentSession.get().run("RETURN 1").consume();
+    started.countDown();
+    try {
+      Thread.sleep(Duration.ofMinutes(1));
+    } catch (final InterruptedException e) {
+      cancelled.countDown();
+      throw e;
+    }
+    return 0L;
+  }
+}
@@ -0,0 +1,130 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LatencyHistogramTest {
+  @Test
+  void values_lower_than_8_should_have_a_bucket_of_their_own() {
+    for (var value = 0; value < 8; value++) {
+      assertThat(LatencyHistogram.bucketOf(value)).isEqualTo(value);
+      assertThat(LatencyHistogram.highestValueAt(value)).isEqualTo(value);
+    }
+  }
+
+  @Test
+  void powers_of_two_should_start_their_buckets() {
+    assertThat(LatencyHistogram.bucketOf(8)).isEqualTo(8);
+    assertThat(LatencyHistogram.bucketOf(15)).isEqualTo(15);
+    assertThat(LatencyHistogram.bucketOf(16)).isEqualTo(16);
+    assertThat(LatencyHistogram.bucketOf(17)).isEqualTo(16);
+    assertThat(LatencyHistogram.bucketOf(18)).isEqualTo(17);
+    assertThat(LatencyHistogram.highestValueAt(16)).isEqualTo(17);
+    assertThat(LatencyHistogram.bucketOf(1L << 62)).isEqualTo(480);
+    assertThat(LatencyHistogram.highestValueAt(480)).isEqualTo((1L << 62) + (1L << 59) - 1);
+  }
+
+  @Test
+  void greatest_value_should_be_counted_at_the_last_bucket() {
+    assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    assertThat(LatencyHistogram.highestValueAt(LatencyHistogram.BUCKETS - 1)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {9, 100, 1_000, 123_456, 1_000_000_007, 1L << 40, (1L << 62) - 1, 1L << 62})
+  void buckets_should_count_values_within_an_eighth_of_their_highest_value(final long value) {
+    final var bucket = LatencyHistogram.bucketOf(value);
+    final var highest = LatencyHistogram.highestValueAt(bucket);
+    assertThat(highest).isAtLeast(value);
+    assertThat(LatencyHistogram.bucketOf(highest)).isEqualTo(bucket);
+    assertThat(LatencyHistogram.bucketOf(highest + 1)).isEqualTo(bucket + 1);
+    assertThat((double) (highest - value)).isAtMost(value / 8.0);
+  }
+
+  @Test
+  void snapshot_of_empty_histograms_should_be_zero() {
+    assertThat(new LatencyHistogram().snapshot()).isEqualTo(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0));
+  }
+
+  @Test
+  void percentiles_should_be_the_highest_value_of_the_bucket_holding_their_rank() {
+    final var histogram = new LatencyHistogram();
+    for (var value = 1; value <= 100; value++) {
+      histogram.record(value);
+    }
+    histogram.record(-5); // counted as 0
+
+    final var snapshot = histogram.snapshot();
+
+    assertThat(snapshot.count()).isEqualTo(101);
+    assertThat(snapshot.mean()).isEqualTo(50);
+    assertThat(snapshot.p50()).isEqualTo(51); // rank 51 is at [48, 51]
+    assertThat(snapshot.p99()).isEqualTo(100); // rank 100 is at [96, 103], capped by max
+    assertThat(snapshot.p999()).isEqualTo(100);
+    assertThat(snapshot.max()).isEqualTo(100);
+  }
+
+  @Test
+  void single_outliers_should_only_move_the_highest_percentiles() {
+    final var histogram = new LatencyHistogram();
+    for (var i = 0; i < 999; i++) {
+      histogram.record(1_000);
+    }
+    histogram.record(1_000_000);
+
+    final var snapshot = histogram.snapshot();
+
+    assertThat(snapshot.p50()).isEqualTo(1_023);
+    assertThat(snapshot.p99()).isEqualTo(1_023);
+    assertThat(snapshot.p999()).isEqualTo(1_023);
+    assertThat(snapshot.max()).isEqualTo(1_000_000);
+  }
+
+  @Test
+  void stripes_should_be_allocated_when_first_recorded_to() throws InterruptedException {
+    final var histogram = new LatencyHistogram();
+    assertThat(histogram.allocatedStripes()).isEqualTo(0);
+
+    histogram.record(10);
+    histogram.record(20);
+    assertThat(histogram.allocatedStripes()).isEqualTo(1);
+
+    final var threads = new java.util.ArrayList<Thread>();
+    for (var i = 0; i < 32; i++) {
+      threads.add(Thread.ofPlatform().start(() -> histogram.record(30)));
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+    assertThat(histogram.snapshot().count()).isEqualTo(34);
+  }
+}
@@ -0,0 +1,56 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Values;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MapTest {
+  @Test
+  void map_values_should_be_read_as_records_of_their_entries() {
+    final var record = Objects.requireNonNull(Map.FirstValue.toNullableRecord(Values.value(java.util.Map.of("name", "Messi", "goals", 10))));
+
+    assertThat(record.keys()).containsExactly("name", "goals");
+    assertThat(record.get("name").asString()).isEqualTo("Messi");
+    assertThat(record.get(record.index("goals")).asLong()).isEqualTo(10L);
+    assertThat(record.get("team", "none")).isEqualTo("none");
+    assertThat(record.asMap()).isEqualTo(java.util.Map.of("name", "Messi", "goals", 10L));
+    assertThat(record.fields()).hasSize(2);
+    assertThrows(NoSuchElementException.class, () -> record.index("team"));
+  }
+
+  @Test
+  void null_values_should_be_read_as_null_records() {
+    assertThat(Map.FirstValue.toNullableRecord(Values.NULL)).isNull();
+  }
+}
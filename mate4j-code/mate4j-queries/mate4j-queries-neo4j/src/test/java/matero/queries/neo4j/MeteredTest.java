@@ -0,0 +1,54 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class MeteredTest {
+  @Test
+  void rows_of_collections_pages_and_column_arrays_should_be_their_size() {
+    assertThat(Metered.rowsOf(List.of(1, 2, 3))).isEqualTo(3);
+    assertThat(Metered.rowsOf(new Page<>(List.of("a", "b"), "next"))).isEqualTo(2);
+    assertThat(Metered.rowsOf(new long[4])).isEqualTo(4);
+    assertThat(Metered.rowsOf(new int[5])).isEqualTo(5);
+    assertThat(Metered.rowsOf(new double[0])).isEqualTo(0);
+  }
+
+  @Test
+  void rows_of_single_values_should_be_one_unless_absent() {
+    assertThat(Metered.rowsOf("value")).isEqualTo(1);
+    assertThat(Metered.rowsOf(new byte[8])).isEqualTo(1);
+    assertThat(Metered.rowsOf(Optional.of(1))).isEqualTo(1);
+    assertThat(Metered.rowsOf(Optional.empty())).isEqualTo(0);
+    assertThat(Metered.rowsOf(null)).isEqualTo(0);
+  }
+}
@@ -0,0 +1,87 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class Neo4jAsyncTest {
+  private static final Driver DRIVER = TestDatabase.driver();
+  private static final Neo4jRuntime RUNTIME = Neo4jRuntime.builder(DRIVER).build();
+
+  @AfterAll
+  static void closeRuntime() {
+    RUNTIME.close();
+    DRIVER.close();
+  }
+
+  @Test
+  void async_queries_should_be_executed_in_their_own_transaction() {
+    final var id = UUID.randomUUID().toString();
+
+    final long count = RUNTIME.get(() -> {
+      Neo4jAsync.executeWriteAsync(tx -> tx.runAsync("CREATE (:Neo4jAsyncTest {id: $id})", Map.of("id", id))
+              .thenCompose(ResultCursor::consumeAsync))
+          .toCompletableFuture()
+          .join();
+      return Neo4jAsync.executeReadAsync(tx -> tx.runAsync("MATCH (n:Neo4jAsyncTest {id: $id}) RETURN count(n)", Map.of("id", id))
+              .thenCompose(ResultCursor::singleAsync)
+              .thenApply(row -> row.get(0).asLong()))
+          .toCompletableFuture()
+          .join();
+    });
+
+    assertThat(count).isEqualTo(1);
+    assertThat(RUNTIME.metrics().sessionsInUse()).isEqualTo(0);
+  }
+
+  @Test
+  void async_queries_should_NOT_be_executed_inside_units_of_work() {
+    final var id = UUID.randomUUID().toString();
+
+    assertThrows(IllegalStateException.class, () -> RUNTIME.run(() -> Neo4jTx.inWrite(() -> {
+      Neo4jAsync.executeWriteAsync(tx -> tx.runAsync("CREATE (:Neo4jAsyncTest {id: $id})", Map.of("id", id))
+          .thenCompose(ResultCursor::consumeAsync));
+    })));
+    assertThrows(IllegalStateException.class, () -> RUNTIME.run(() -> Neo4jTx.inRead(() -> {
+      Neo4jAsync.executeReadAsync(tx -> tx.runAsync("RETURN 1").thenCompose(ResultCursor::consumeAsync));
+    })));
+
+    try (final var session = DRIVER.session()) {
+      final var created = session.run("MATCH (n:Neo4jAsyncTest {id: $id}) RETURN count(n)", Map.of("id", id)).single().get(0).asLong();
+      assertThat(created).isEqualTo(0);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Query;
+import reactor.adapter.JdkFlowAdapter;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class Neo4jReactiveTest {
+  private static final Driver DRIVER = TestDatabase.driver();
+  private static final Neo4jRuntime RUNTIME = Neo4jRuntime.builder(DRIVER).build();
+
+  @AfterAll
+  static void closeRuntime() {
+    RUNTIME.close();
+    DRIVER.close();
+  }
+
+  @Test
+  void reactive_queries_should_pull_records_when_subscribed() {
+    final var publisher = RUNTIME.get(() -> Neo4jReactive.executeRead(new Query("UNWIND range(1, 5) AS i RETURN i"), row -> row.get(0).asLong()));
+
+    assertThat(JdkFlowAdapter.flowPublisherToFlux(publisher).collectList().block()).containsExactly(1L, 2L, 3L, 4L, 5L).inOrder();
+  }
+
+  @Test
+  void reactive_queries_should_NOT_be_executed_inside_units_of_work() {
+    final var id = UUID.randomUUID().toString();
+    final var create = new Query("CREATE (n:Neo4jReactiveTest {id: $id}) RETURN n.id", Map.of("id", id));
+
+    assertThrows(IllegalStateException.class, () -> RUNTIME.run(() -> Neo4jTx.inWrite(() -> {
+      Neo4jReactive.executeWrite(create, row -> row.get(0).asString());
+    })));
+    assertThrows(IllegalStateException.class, () -> RUNTIME.run(() -> Neo4jTx.inRead(() -> {
+      Neo4jReactive.executeRead(new Query("RETURN 1"), row -> row.get(0).asLong());
+    })));
+  }
+}
@@ -0,0 +1,230 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.TransactionConfig;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class Neo4jRuntimeTest {
+  @Test
+  void current_runtime_should_NOT_be_available_outside_units_of_work() {
+    assertThrows(IllegalStateException.class, Neo4jRuntime::current);
+    assertThrows(IllegalStateException.class, CurrentSession::get);
+  }
+
+  @Test
+  void nested_units_of_work_should_share_the_session_of_the_outermost_one() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final var outer = new AtomicReference<Session>();
+      final var nested = new java.util.ArrayList<Session>();
+      runtime.run(() -> {
+        assertThat(Neo4jRuntime.current()).isSameInstanceAs(runtime);
+        outer.set(CurrentSession.get());
+        runtime.run(() -> nested.add(CurrentSession.get()));
+        nested.add(runtime.get(CurrentSession::get));
+        try {
+          nested.add(runtime.call(CurrentSession::get));
+        } catch (final Exception e) {
+          throw new AssertionError(e);
+        }
+      });
+
+      assertThat(nested).containsExactly(outer.get(), outer.get(), outer.get());
+      assertThat(CurrentSession.isBound()).isFalse();
+      final var metrics = runtime.metrics();
+      assertThat(metrics.sessionsOpened()).isEqualTo(1);
+      assertThat(metrics.sessionsClosed()).isEqualTo(1);
+      assertThat(metrics.sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void sessions_should_be_released_when_units_of_work_fail() {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      assertThrows(IllegalArgumentException.class, () -> runtime.get(() -> {
+        throw new IllegalArgumentException("failed");
+      }));
+      assertThrows(IllegalStateException.class, () -> runtime.call(() -> {
+        throw new IllegalStateException("failed");
+      }));
+
+      final var metrics = runtime.metrics();
+      assertThat(metrics.sessionsOpened()).isEqualTo(2);
+      assertThat(metrics.sessionsClosed()).isEqualTo(2);
+      assertThat(metrics.sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void queries_with_session_settings_of_their_own_should_reuse_one_session_per_unit_of_work() {
+    final var fetching = new QueryOptions("Neo4jRuntimeTest", "fetching", AccessMode.READ, TransactionConfig.empty(), 10);
+    final var retrying = new QueryOptions("Neo4jRuntimeTest", "retrying", AccessMode.READ, TransactionConfig.empty(), 10,
+        new RetryPolicy(3, TimeUnit.SECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(10)));
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final long total = runtime.get(() -> {
+        var sum = 0L;
+        for (var i = 0; i < 3; i++) {
+          sum += Neo4jTx.executeRead(fetching, tx -> tx.run("RETURN 1 AS one").single().get("one").asLong());
+          sum += Neo4jTx.executeRead(retrying, tx -> tx.run("RETURN 1 AS one").single().get("one").asLong());
+        }
+        return sum;
+      });
+
+      assertThat(total).isEqualTo(6);
+      final var metrics = runtime.metrics();
+      // the session of the unit of work, plus one per distinct session settings
+      assertThat(metrics.sessionsOpened()).isEqualTo(3);
+      assertThat(metrics.sessionsClosed()).isEqualTo(3);
+      assertThat(metrics.sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void sessions_open_for_longer_than_the_leak_threshold_should_be_reported_once() {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).leakThreshold(Duration.ZERO).build()) {
+      final var session = runtime.openSession();
+      assertThat(runtime.detectLeaks()).isEqualTo(1);
+      assertThat(runtime.detectLeaks()).isEqualTo(0);
+      assertThat(runtime.metrics().sessionsLeaked()).isEqualTo(1);
+      assertThat(runtime.metrics().sessionsInUse()).isEqualTo(1);
+
+      session.close();
+      session.close();
+
+      final var metrics = runtime.metrics();
+      assertThat(metrics.sessionsInUse()).isEqualTo(0);
+      assertThat(metrics.sessionsClosed()).isEqualTo(1);
+      assertThat(runtime.detectLeaks()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  void leak_detector_should_report_leaked_sessions_in_background() throws InterruptedException {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver)
+             .leakThreshold(Duration.ZERO)
+             .detectLeaksEvery(Duration.ofMillis(10))
+             .build();
+         final var session = runtime.openSession()) {
+      final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (runtime.metrics().sessionsLeaked() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(runtime.metrics().sessionsLeaked()).isEqualTo(1);
+      assertThat(session.isOpen()).isTrue();
+    }
+  }
+
+  @Test
+  void pool_metrics_should_include_connection_pools_of_drivers_created_by_the_runtime() {
+    try (final var runtime = Neo4jRuntime.builder(TestDatabase.uri(), AuthTokens.none()).build()) {
+      runtime.run(() -> CurrentSession.get().run("RETURN 1").consume());
+
+      assertThat(runtime.metrics().connectionPools()).isNotEmpty();
+    }
+  }
+
+  @Test
+  void virtual_threads_started_by_the_runtime_should_read_the_writes_of_their_unit_of_work() throws Exception {
+    try (final var driver = TestDatabase.driver();
+         final var runtime = Neo4jRuntime.builder(driver).build()) {
+      final var id = UUID.randomUUID().toString();
+      final var threadBookmarks = new AtomicReference<Object>();
+      final var threadRead = new AtomicLong();
+      final var taskBookmarks = new AtomicReference<Object>();
+      final var taskRead = new AtomicLong();
+      final var written = new AtomicReference<Object>();
+
+      runtime.run(() -> {
+        CurrentSession.get().executeWriteWithoutResult(tx -> tx.run("CREATE (:Neo4jRuntimeTest {id: $id})", Map.of("id", id)));
+        written.set(CurrentBookmarks.get());
+        try {
+          runtime.startVirtualThread(() -> {
+            threadBookmarks.set(CurrentBookmarks.get());
+            threadRead.set(countNodes(id));
+          }).join();
+          try (final var executor = runtime.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+              taskBookmarks.set(CurrentBookmarks.get());
+              taskRead.set(countNodes(id));
+            }).get(30, TimeUnit.SECONDS);
+          }
+        } catch (final Exception e) {
+          throw new AssertionError(e);
+        }
+      });
+
+      assertThat(written.get()).isNotNull();
+      assertThat(threadBookmarks.get()).isEqualTo(written.get());
+      assertThat(threadRead.get()).isEqualTo(1L);
+      assertThat(taskBookmarks.get()).isEqualTo(written.get());
+      assertThat(taskRead.get()).isEqualTo(1L);
+      assertThat(runtime.metrics().sessionsInUse()).isEqualTo(0);
+    }
+  }
+
+  private static long countNodes(final String id) {
+    try (final var session = Neo4jRuntime.current().openSession(AccessMode.READ)) {
+      return session.executeRead(tx -> tx.run("MATCH (n:Neo4jRuntimeTest {id: $id}) RETURN count(n) AS n", Map.of("id", id))
+          .single().get("n").asLong());
+    }
+  }
+
+  @Test
+  void closing_the_runtime_should_NOT_close_drivers_owned_by_the_caller() {
+    try (final var driver = TestDatabase.driver()) {
+      Neo4jRuntime.builder(driver).build().close();
+
+      driver.verifyConnectivity();
+    }
+  }
+
+  @Test
+  void closing_the_runtime_should_close_drivers_created_by_it() {
+    final var runtime = Neo4jRuntime.builder(TestDatabase.uri(), AuthTokens.none()).build();
+    runtime.close();
+
+    assertThrows(IllegalStateException.class, () -> runtime.driver().verifyConnectivity());
+  }
+}
@@ -0,0 +1,136 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.TransactionContext;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class Neo4jTxTest {
+  private static final Driver DRIVER = TestDatabase.driver();
+  private static final Neo4jRuntime RUNTIME = Neo4jRuntime.builder(DRIVER).build();
+
+  @AfterAll
+  static void closeRuntime() {
+    RUNTIME.close();
+    DRIVER.close();
+  }
+
+  @Test
+  void queries_executed_in_a_unit_of_work_should_share_its_transaction() {
+    final var id = UUID.randomUUID().toString();
+    final var transactions = new java.util.ArrayList<TransactionContext>();
+
+    final long seen = RUNTIME.get(() -> Neo4jTx.inWrite(() -> {
+      Neo4jTx.executeWrite(tx -> {
+        transactions.add(tx);
+        return tx.run("CREATE (:Neo4jTxTest {id: $id})", Map.of("id", id)).consume();
+      });
+      return Neo4jTx.executeRead(tx -> {
+        transactions.add(tx);
+        return tx.run("MATCH (n:Neo4jTxTest {id: $id}) RETURN count(n)", Map.of("id", id)).single().get(0).asLong();
+      });
+    }));
+
+    assertThat(seen).isEqualTo(1);
+    assertThat(transactions).hasSize(2);
+    assertThat(transactions.get(1)).isSameInstanceAs(transactions.get(0));
+    assertThat(count(id)).isEqualTo(1);
+  }
+
+  @Test
+  void nested_units_of_work_should_reuse_the_ambient_transaction() {
+    final var transactions = new java.util.ArrayList<TransactionContext>();
+
+    RUNTIME.run(() -> Neo4jTx.inWrite(() -> {
+      assertThat(Neo4jTx.isActive()).isTrue();
+      Neo4jTx.executeWrite(tx -> transactions.add(tx));
+      Neo4jTx.inWrite(() -> Neo4jTx.executeWrite(tx -> transactions.add(tx)));
+      Neo4jTx.inRead(() -> Neo4jTx.executeRead(tx -> transactions.add(tx)));
+    }));
+
+    assertThat(transactions).hasSize(3);
+    assertThat(transactions.get(1)).isSameInstanceAs(transactions.get(0));
+    assertThat(transactions.get(2)).isSameInstanceAs(transactions.get(0));
+    assertThat(Neo4jTx.isActive()).isFalse();
+  }
+
+  @Test
+  void write_queries_should_NOT_be_executed_inside_read_transactions() {
+    final var failure = assertThrows(IllegalStateException.class, () -> RUNTIME.run(() -> Neo4jTx.inRead(() -> {
+      Neo4jTx.executeWrite(tx -> tx.run("CREATE (:Neo4jTxTest)").consume());
+    })));
+    assertThat(failure).hasMessageThat().contains("Neo4jTx.inWrite");
+
+    assertThrows(IllegalStateException.class, () -> RUNTIME.run(() -> Neo4jTx.inRead(() -> {
+      Neo4jTx.inWrite(() -> {
+      });
+    })));
+  }
+
+  @Test
+  void failed_units_of_work_should_rollback_every_query() {
+    final var id = UUID.randomUUID().toString();
+
+    final var failure = assertThrows(IllegalArgumentException.class, () -> RUNTIME.run(() -> Neo4jTx.inWrite(() -> {
+      Neo4jTx.executeWrite(tx -> tx.run("CREATE (:Neo4jTxTest {id: $id})", Map.of("id", id)).consume());
+      Neo4jTx.executeWrite(tx -> tx.run("CREATE (:Neo4jTxTest {id: $id})", Map.of("id", id)).consume());
+      throw new IllegalArgumentException("failed");
+    })));
+
+    assertThat(failure).hasMessageThat().isEqualTo("failed");
+    assertThat(count(id)).isEqualTo(0);
+  }
+
+  @Test
+  void queries_executed_outside_units_of_work_should_commit_on_their_own() {
+    final var id = UUID.randomUUID().toString();
+
+    RUNTIME.run(() -> {
+      Neo4jTx.executeWrite(tx -> tx.run("CREATE (:Neo4jTxTest {id: $id})", Map.of("id", id)).consume());
+      assertThrows(IllegalArgumentException.class, () -> Neo4jTx.executeWrite(tx -> {
+        tx.run("CREATE (:Neo4jTxTest {id: $id})", Map.of("id", id)).consume();
+        throw new IllegalArgumentException("failed");
+      }));
+    });
+
+    assertThat(count(id)).isEqualTo(1);
+  }
+
+  private static long count(final String id) {
+    try (final var session = DRIVER.session()) {
+      return session.executeRead(tx -> tx.run("MATCH (n:Neo4jTxTest {id: $id}) RETURN count(n)", Map.of("id", id)).single().get(0).asLong());
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryCacheTest {
+  @Test
+  void cached_results_should_be_loaded_once_per_key() {
+    final var cache = new QueryCache<String>("QueryCacheTest.loads", Duration.ofMinutes(1), 10);
+    final var loads = new AtomicInteger();
+
+    assertThat(cache.get(QueryCache.keyOf("a"), () -> "a" + loads.incrementAndGet())).isEqualTo("a1");
+    assertThat(cache.get(QueryCache.keyOf("a"), () -> "a" + loads.incrementAndGet())).isEqualTo("a1");
+    assertThat(cache.get(QueryCache.keyOf("b"), () -> "b" + loads.incrementAndGet())).isEqualTo("b2");
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void invalidated_results_should_be_loaded_again() {
+    final var cache = new QueryCache<String>("QueryCacheTest.invalidated", Duration.ofMinutes(1), 10);
+    final var loads = new AtomicInteger();
+    cache.get(QueryCache.keyOf(), () -> "v" + loads.incrementAndGet());
+
+    QueryCache.invalidate("QueryCacheTest.invalidated");
+
+    assertThat(cache.get(QueryCache.keyOf(), () -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+  }
+
+  @Test
+  void cached_lists_should_NOT_be_modifiable_by_callers() {
+    final var cache = new QueryCache<List<String>>("QueryCacheTest.lists", Duration.ofMinutes(1), 10);
+    final var loaded = cache.get(QueryCache.keyOf(), () -> new ArrayList<>(List.of("a", "b")));
+
+    assertThrows(UnsupportedOperationException.class, () -> loaded.add("c"));
+    final var cached = cache.get(QueryCache.keyOf(), List::of);
+    assertThrows(UnsupportedOperationException.class, () -> cached.remove(0));
+    assertThat(cached).containsExactly("a", "b").inOrder();
+  }
+
+  @Test
+  void cached_maps_should_NOT_be_modifiable_by_callers() {
+    final var cache = new QueryCache<Map<String, Object>>("QueryCacheTest.maps", Duration.ofMinutes(1), 10);
+    final var loaded = cache.get(QueryCache.keyOf("x"), () -> new HashMap<>(Map.of("name", "x")));
+
+    assertThrows(UnsupportedOperationException.class, () -> loaded.put("name", "y"));
+    assertThat(cache.get(QueryCache.keyOf("x"), Map::of)).containsExactly("name", "x");
+  }
+}
@@ -0,0 +1,95 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.exceptions.ClientException;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryCursorTest {
+  private static final Driver DRIVER = TestDatabase.driver();
+  private static final Neo4jRuntime RUNTIME = Neo4jRuntime.builder(DRIVER).build();
+  private static final Query NUMBERS = new Query("UNWIND range(1, 5) AS i RETURN i");
+
+  @AfterAll
+  static void closeRuntime() {
+    RUNTIME.close();
+    DRIVER.close();
+  }
+
+  @Test
+  void fully_consumed_streams_should_release_their_transaction_without_being_closed() {
+    final var id = UUID.randomUUID().toString();
+    final var create = new Query("UNWIND range(1, 3) AS i CREATE (n:QueryCursorTest {id: $id}) RETURN i", Map.of("id", id));
+
+    final var numbers = RUNTIME.get(() -> {
+      QueryCursor.executeWrite(create, row -> row.get(0).asLong()).stream().forEach(i -> {
+      });
+      return QueryCursor.executeRead(NUMBERS, row -> row.get(0).asLong()).stream().toList();
+    });
+
+    assertThat(numbers).containsExactly(1L, 2L, 3L, 4L, 5L).inOrder();
+    assertThat(RUNTIME.metrics().sessionsInUse()).isEqualTo(0);
+    try (final var session = DRIVER.session()) {
+      final var created = session.run("MATCH (n:QueryCursorTest {id: $id}) RETURN count(n)", Map.of("id", id)).single().get(0).asLong();
+      assertThat(created).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void cursors_closed_before_their_last_row_should_release_their_transaction() {
+    RUNTIME.run(() -> {
+      final var cursor = QueryCursor.executeRead(NUMBERS, row -> row.get(0).asLong());
+      assertThat(cursor.next()).isEqualTo(1L);
+      assertThat(RUNTIME.metrics().sessionsInUse()).isEqualTo(2);
+
+      cursor.close();
+      cursor.close();
+
+      assertThat(cursor.hasNext()).isFalse();
+      assertThat(RUNTIME.metrics().sessionsInUse()).isEqualTo(1);
+    });
+  }
+
+  @Test
+  void sessions_should_be_released_when_transactions_can_not_begin() {
+    try (final var runtime = Neo4jRuntime.builder(DRIVER).database("missing").build()) {
+      assertThrows(ClientException.class, () -> runtime.run(() -> QueryCursor.executeRead(NUMBERS, row -> row.get(0).asLong())));
+
+      assertThat(runtime.metrics().sessionsInUse()).isEqualTo(0);
+      assertThat(runtime.detectLeaks()).isEqualTo(0);
+    }
+  }
+}
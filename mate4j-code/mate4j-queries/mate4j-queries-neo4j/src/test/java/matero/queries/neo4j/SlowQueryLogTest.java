@@ -0,0 +1,173 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.TransactionConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SlowQueryLogTest {
+  private static final Driver DRIVER = TestDatabase.driver();
+  private static final Neo4jRuntime RUNTIME = Neo4jRuntime.builder(DRIVER).build();
+  private static final QueryOptions READ = new QueryOptions("SlowQueryLogTest", "read", AccessMode.READ, TransactionConfig.empty(), 0);
+  private static final QueryOptions WRITE = new QueryOptions("SlowQueryLogTest", "write", AccessMode.WRITE, TransactionConfig.empty(), 0);
+
+  @AfterAll
+  static void closeRuntime() {
+    RUNTIME.close();
+    DRIVER.close();
+  }
+
+  @Test
+  void queries_faster_than_threshold_should_NOT_be_logged() {
+    final var log = new SlowQueryLog(Duration.ofMillis(10), 4, false);
+
+    log.watched(READ, new Query("RETURN 1"), null, Duration.ofMillis(9).toNanos());
+
+    assertThat(log.entries()).isEmpty();
+  }
+
+  @Test
+  void entries_should_be_listed_oldest_first() {
+    final var log = new SlowQueryLog(Duration.ZERO, 4, false);
+
+    log.watched(READ, new Query("RETURN 1"), null, 1);
+    log.watched(READ, new Query("RETURN 2"), null, 2);
+    log.watched(READ, new Query("RETURN 3"), null, 3);
+
+    assertThat(cyphersOf(log)).containsExactly("RETURN 1", "RETURN 2", "RETURN 3").inOrder();
+  }
+
+  @Test
+  void full_log_should_overwrite_its_oldest_entries() {
+    final var log = new SlowQueryLog(Duration.ZERO, 3, false);
+
+    for (var i = 1; i <= 7; i++) {
+      log.watched(READ, new Query("RETURN " + i), null, i);
+    }
+
+    assertThat(cyphersOf(log)).containsExactly("RETURN 5", "RETURN 6", "RETURN 7").inOrder();
+  }
+
+  @Test
+  void log_without_capacity_should_NOT_be_created() {
+    assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(Duration.ZERO, 0, false));
+  }
+
+  @Test
+  void numbers_booleans_and_nulls_should_NOT_be_redacted() {
+    final var parameters = new LinkedHashMap<String, @Nullable Object>();
+    parameters.put("count", 3L);
+    parameters.put("ratio", 0.5);
+    parameters.put("active", true);
+    parameters.put("missing", null);
+
+    assertThat(SlowQueryLog.redact(parameters)).containsExactlyEntriesIn(parameters).inOrder();
+  }
+
+  @Test
+  void strings_and_other_values_should_be_masked_by_their_type() {
+    final var redacted = SlowQueryLog.redact(Map.of("name", "secret", "id", UUID.randomUUID()));
+
+    assertThat(redacted).containsExactly("name", "<String>", "id", "<UUID>");
+  }
+
+  @Test
+  void collections_should_be_sampled() {
+    final var redacted = SlowQueryLog.redact(Map.of(
+        "few", List.of(1, 2),
+        "many", Arrays.asList(1, "two", 3, 4, 5)));
+
+    assertThat(redacted.get("few")).isEqualTo(List.of(1, 2));
+    assertThat(redacted.get("many")).isEqualTo(List.of(1, "<String>", 3, "... 2 more"));
+  }
+
+  @Test
+  void nested_maps_should_be_redacted() {
+    final var redacted = SlowQueryLog.redact(Map.of("props", Map.of("name", "secret", "age", 42)));
+
+    assertThat(redacted.get("props")).isEqualTo(Map.of("name", "<String>", "age", 42));
+  }
+
+  @Test
+  void logged_entries_should_keep_redacted_parameters() {
+    final var log = new SlowQueryLog(Duration.ZERO, 2, false);
+
+    log.watched(READ, new Query("RETURN $name, $age", Map.of("name", "secret", "age", 42)), null, 1);
+
+    final var entry = log.entries().get(0);
+    assertThat(entry.queries()).isEqualTo("SlowQueryLogTest");
+    assertThat(entry.method()).isEqualTo("read");
+    assertThat(entry.parameters()).containsExactly("name", "<String>", "age", 42L);
+    assertThat(entry.plan()).isNull();
+  }
+
+  @Test
+  void read_queries_should_be_profiled() {
+    final var plan = RUNTIME.get(() -> SlowQueryLog.planOf(RUNTIME, READ, new Query("UNWIND range(1, 3) AS n RETURN n")));
+
+    assertThat(plan).contains("dbHits=");
+    assertThat(plan).contains("rows=3");
+  }
+
+  @Test
+  void write_queries_should_only_be_explained() {
+    final var id = UUID.randomUUID().toString();
+
+    final var plan = RUNTIME.get(() -> SlowQueryLog.planOf(RUNTIME, WRITE,
+        new Query("CREATE (:SlowQueryLogTest {id: $id})", Map.of("id", id))));
+
+    assertThat(plan).contains("Create");
+    assertThat(plan).doesNotContain("dbHits=");
+    try (final var session = DRIVER.session()) {
+      final var created = session.run("MATCH (n:SlowQueryLogTest {id: $id}) RETURN count(n) AS n", Map.of("id", id))
+          .single().get("n").asLong();
+      assertThat(created).isEqualTo(0L);
+    }
+  }
+
+  private static List<String> cyphersOf(final SlowQueryLog log) {
+    final var cyphers = new ArrayList<String>();
+    log.entries().forEach(entry -> cyphers.add(entry.cypher()));
+    return cyphers;
+  }
+}
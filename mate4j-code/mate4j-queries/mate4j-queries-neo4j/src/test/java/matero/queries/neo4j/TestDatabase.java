@@ -0,0 +1,64 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.fixtures.Neo4jFixturesSettings;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.harness.Neo4j;
+
+/**
+ * In-process database shared by every test of the module, started on first use and stopped when the JVM exits.
+ */
+final class TestDatabase
+    extends Neo4jFixturesSettings {
+  private static final @NonNull Neo4j NEO4J = new TestDatabase().start();
+
+  @Override
+  public void configure() {
+    // configured when started
+  }
+
+  private @NonNull Neo4j start() {
+    final var neo4j = internal().singleton().start();
+    Runtime.getRuntime().addShutdownHook(new Thread(neo4j::close));
+    return neo4j;
+  }
+
+  /**
+   * @return a new driver connected to the test database, it is up to the caller to close it.
+   */
+  static @NonNull Driver driver() {
+    return GraphDatabase.driver(NEO4J.boltURI(), AuthTokens.none());
+  }
+
+  static @NonNull String uri() {
+    return NEO4J.boltURI().toString();
+  }
+}
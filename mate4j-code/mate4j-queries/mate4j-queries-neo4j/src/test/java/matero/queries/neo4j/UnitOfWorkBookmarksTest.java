@@ -0,0 +1,73 @@
+package matero.queries.neo4j;
+
+/*-
+ * #%L
+ * mate4j-queries-neo4j
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.BookmarkManagerConfig;
+import org.neo4j.driver.BookmarkManagers;
+import org.neo4j.driver.NotificationConfig;
+import org.neo4j.driver.SessionConfig;
+
+import java.util.Optional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class UnitOfWorkBookmarksTest {
+  @Test
+  void session_configs_should_keep_every_setting_of_their_base_config() {
+    final var manager = BookmarkManagers.defaultManager(BookmarkManagerConfig.builder().build());
+    final var bookmarks = new UnitOfWorkBookmarks(manager);
+    final var base = SessionConfig.builder()
+        .withDefaultAccessMode(AccessMode.READ)
+        .withDatabase("players")
+        .withFetchSize(42)
+        .withImpersonatedUser("scout")
+        .withNotificationConfig(NotificationConfig.disableAllConfig())
+        .build();
+
+    final var config = bookmarks.sessionConfig(base);
+
+    assertThat(config.defaultAccessMode()).isEqualTo(AccessMode.READ);
+    assertThat(config.database()).isEqualTo(Optional.of("players"));
+    assertThat(config.fetchSize()).isEqualTo(Optional.of(42L));
+    assertThat(config.impersonatedUser()).isEqualTo(Optional.of("scout"));
+    assertThat(config.notificationConfig()).isEqualTo(NotificationConfig.disableAllConfig());
+    assertThat(config.bookmarkManager()).isEqualTo(Optional.of(manager));
+  }
+
+  @Test
+  void session_configs_should_be_built_once_per_base_config() {
+    final var bookmarks = new UnitOfWorkBookmarks(BookmarkManagers.defaultManager(BookmarkManagerConfig.builder().build()));
+    final var write = SessionConfig.builder().withDefaultAccessMode(AccessMode.WRITE).build();
+    final var read = SessionConfig.builder().withDefaultAccessMode(AccessMode.READ).build();
+
+    assertThat(bookmarks.sessionConfig(write)).isSameInstanceAs(bookmarks.sessionConfig(write));
+    assertThat(bookmarks.sessionConfig(read)).isSameInstanceAs(bookmarks.sessionConfig(read));
+    assertThat(bookmarks.sessionConfig(read)).isNotSameInstanceAs(bookmarks.sessionConfig(write));
+  }
+}
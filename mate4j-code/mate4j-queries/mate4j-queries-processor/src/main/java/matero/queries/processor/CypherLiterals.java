@@ -0,0 +1,273 @@
+package matero.queries.processor;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Literals compared in predicates ({@code WHERE n.id = 5}) or used as property values of patterns
+ * ({@code MATCH (n {id: 5})}) of a cypher statement, literals anywhere else (as {@code RETURN count(n) > 0} or
+ * {@code SET n.active = true}) are not considered.
+ * <p>
+ * Every distinct query text takes its own slot at the plan cache of the server, so queries differing only by a
+ * literal are planned again. Depending on {@value #MODE} literals are reported as warnings ({@code warn}, the
+ * default), hoisted into generated parameters ({@code hoist}) or left alone ({@code keep}).
+ */
+final class CypherLiterals {
+  static final @NonNull String MODE = "mate4j.literals";
+
+  /**
+   * Generated parameters are named {@code __literal<i>}.
+   */
+  static final @NonNull String PARAMETER = "__literal";
+
+  /**
+   * Schema and administration commands do not accept parameters everywhere.
+   */
+  private static final @NonNull Set<@NonNull String> COMMANDS = Set.of(
+      "INDEX", "CONSTRAINT", "OPTIONS", "DATABASE", "ALIAS", "SHOW", "USER", "ROLE", "PRIVILEGE", "SERVER");
+
+  private static final @NonNull Set<@NonNull String> COMPARISONS = Set.of("=", "<>", "<", ">", "<=", ">=");
+
+  /**
+   * Clauses delimiting the predicates and patterns where literals are looked for.
+   */
+  private static final @NonNull Set<@NonNull String> CLAUSES = Set.of(
+      "MATCH", "MERGE", "CREATE", "WHERE", "RETURN", "WITH", "SET", "DELETE", "REMOVE", "UNWIND", "CALL", "YIELD",
+      "ORDER", "SKIP", "LIMIT", "UNION", "FOREACH");
+
+  private static final @NonNull Set<@NonNull String> PATTERNS = Set.of("MATCH", "MERGE", "CREATE", "WHERE");
+
+  enum Mode {
+    HOIST, WARN, KEEP;
+
+    static @NonNull Mode configuredBy(final @NonNull Map<@NonNull String, @NonNull String> options) {
+      final var mode = options.getOrDefault(MODE, "warn").toLowerCase(Locale.ROOT);
+      return switch (mode) {
+        case "hoist" -> HOIST;
+        case "warn" -> WARN;
+        case "keep" -> KEEP;
+        default -> throw new IllegalArgumentException(MODE + " must be one of hoist, warn or keep, but it is '" + mode + "'");
+      };
+    }
+  }
+
+  /**
+   * @param value of the literal, {@code null} when it can not be hoisted (strings with escape sequences, for example).
+   */
+  record Literal(int start, int end, @NonNull String text, @Nullable Object value) {
+  }
+
+  final @NonNull String cypher;
+  final @NonNull List<@NonNull Literal> literals;
+
+  private CypherLiterals(
+      final @NonNull String cypher,
+      final @NonNull List<@NonNull Literal> literals) {
+    this.cypher = cypher;
+    this.literals = literals;
+  }
+
+  /**
+   * @param cypher normalized statement, see {@link CypherScanner#normalize(String)}.
+   */
+  static @NonNull CypherLiterals of(final @NonNull String cypher) {
+    for (final var word : CypherScanner.of(cypher).words) {
+      if (COMMANDS.contains(word.upperCase())) {
+        return new CypherLiterals(cypher, List.of());
+      }
+    }
+    final var literals = new java.util.ArrayList<@NonNull Literal>();
+    final var blocks = new java.util.ArrayDeque<@NonNull Character>();
+    // clause of every open block, restored when it is closed
+    final var clauses = new java.util.ArrayDeque<@NonNull String>();
+    var clause = "";
+    var previous = "";
+    var i = CypherScanner.statementAt(cypher);
+    final var length = cypher.length();
+    while (i < length) {
+      final var c = cypher.charAt(i);
+      final int next;
+      if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      final var valuePosition = COMPARISONS.contains(previous) && "WHERE".equals(clause)
+          || ":".equals(previous) && Character.valueOf('{').equals(blocks.peek()) && PATTERNS.contains(clause);
+      if (c == '\'' || c == '"') {
+        next = CypherScanner.skipQuoted(cypher, i, c);
+        if (valuePosition && next <= length && cypher.charAt(next - 1) == c && next - i >= 2) {
+          final var text = cypher.substring(i, next);
+          final var content = text.substring(1, text.length() - 1);
+          literals.add(new Literal(i, next, text, content.indexOf('\\') < 0 ? content : null));
+        }
+      } else if (c == '`') {
+        next = CypherScanner.skipQuoted(cypher, i, c);
+      } else if (Character.isDigit(c)) {
+        next = endOfNumber(cypher, i);
+        if (valuePosition && (next == length || !isIdentifierPart(cypher.charAt(next)))) {
+          final var text = cypher.substring(i, next);
+          literals.add(new Literal(i, next, text, numberOf(text)));
+        }
+      } else if (Character.isLetter(c) || c == '_') {
+        next = endOfIdentifier(cypher, i);
+        final var word = cypher.substring(i, next);
+        if (valuePosition && ("true".equalsIgnoreCase(word) || "false".equalsIgnoreCase(word))) {
+          literals.add(new Literal(i, next, word, Boolean.valueOf(word)));
+        } else if (!previous.endsWith(".") && !previous.endsWith(":") && !previous.endsWith("$")
+            && !isMapKey(cypher, next) && CLAUSES.contains(word.toUpperCase(Locale.ROOT))) {
+          clause = word.toUpperCase(Locale.ROOT);
+        }
+      } else if (isOperator(c)) {
+        next = endOfOperator(cypher, i);
+      } else {
+        if (c == '(' || c == '[' || c == '{') {
+          blocks.push(c);
+          clauses.push(clause);
+        } else if ((c == ')' || c == ']' || c == '}') && !blocks.isEmpty()) {
+          blocks.pop();
+          clause = clauses.pop();
+        }
+        next = i + 1;
+      }
+      previous = cypher.substring(i, next);
+      i = next;
+    }
+    return new CypherLiterals(cypher, List.copyOf(literals));
+  }
+
+  /**
+   * @return values of the first {@code max} hoistable literals, by the name of the parameter replacing them.
+   */
+  @NonNull Map<@NonNull String, @NonNull Object> parameters(final int max) {
+    final var parameters = new java.util.LinkedHashMap<@NonNull String, @NonNull Object>();
+    for (final var literal : this.literals) {
+      final var value = literal.value();
+      if (parameters.size() == max) {
+        break;
+      }
+      if (value != null) {
+        parameters.put(PARAMETER + parameters.size(), value);
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * @return cypher with the first {@code max} hoistable literals replaced by their parameters.
+   */
+  @NonNull String hoisted(final int max) {
+    final var hoisted = new StringBuilder(this.cypher.length());
+    var from = 0;
+    var count = 0;
+    for (final var literal : this.literals) {
+      if (count == max) {
+        break;
+      }
+      if (literal.value() != null) {
+        hoisted.append(this.cypher, from, literal.start()).append('$').append(PARAMETER).append(count++);
+        from = literal.end();
+      }
+    }
+    return hoisted.append(this.cypher, from, this.cypher.length()).toString();
+  }
+
+  private static int endOfNumber(
+      final @NonNull String cypher,
+      final int at) {
+    var i = at;
+    while (i < cypher.length() && (isIdentifierPart(cypher.charAt(i)) || cypher.charAt(i) == '.' && i + 1 < cypher.length() && Character.isDigit(cypher.charAt(i + 1)))) {
+      if ((cypher.charAt(i) == 'e' || cypher.charAt(i) == 'E') && i + 1 < cypher.length() && (cypher.charAt(i + 1) == '-' || cypher.charAt(i + 1) == '+')) {
+        i++;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * @return value of a decimal integer or float, {@code null} for any other number (hexadecimal, octal, out of
+   * range, etc.).
+   */
+  private static @Nullable Object numberOf(final @NonNull String text) {
+    try {
+      if (text.matches("(0|[1-9][0-9]*)")) {
+        return Long.valueOf(text);
+      } else if (text.matches("(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?")) {
+        return Double.valueOf(text);
+      }
+    } catch (final NumberFormatException outOfRange) {
+      // left inline
+    }
+    return null;
+  }
+
+  private static int endOfIdentifier(
+      final @NonNull String cypher,
+      final int at) {
+    var i = at;
+    while (i < cypher.length() && isIdentifierPart(cypher.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int endOfOperator(
+      final @NonNull String cypher,
+      final int at) {
+    var i = at;
+    while (i < cypher.length() && isOperator(cypher.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isMapKey(
+      final @NonNull String cypher,
+      final int end) {
+    var i = end;
+    while (i < cypher.length() && Character.isWhitespace(cypher.charAt(i))) {
+      i++;
+    }
+    return i < cypher.length() && cypher.charAt(i) == ':';
+  }
+
+  private static boolean isIdentifierPart(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+
+  private static boolean isOperator(final char c) {
+    return c == '=' || c == '<' || c == '>' || c == '!' || c == '~' || c == '+' || c == '-' || c == '*' || c == '/'
+        || c == '%' || c == '^' || c == ':' || c == '.' || c == '|' || c == '&' || c == '$';
+  }
+}
@@ -0,0 +1,233 @@
+package matero.queries.processor;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Top level words of a cypher statement, skipping literals, comments and nested blocks (subqueries, maps, lists).
+ * Property keys, parameters, labels and relationship types are not words, so clause keywords are easy to find.
+ */
+final class CypherScanner {
+  record Word(@NonNull String upperCase, int at) {
+    boolean is(final @NonNull String keyword) {
+      return this.upperCase.equals(keyword);
+    }
+  }
+
+  final @NonNull List<@NonNull Word> words;
+  /**
+   * Index right after the last character of the statement that is not whitespace nor part of a comment.
+   */
+  final int end;
+
+  private CypherScanner(
+      final @NonNull List<@NonNull Word> words,
+      final int end) {
+    this.words = words;
+    this.end = end;
+  }
+
+  static @NonNull CypherScanner of(final @NonNull String cypher) {
+    final var words = new java.util.ArrayList<@NonNull Word>();
+    var end = 0;
+    var depth = 0;
+    var i = 0;
+    final var length = cypher.length();
+    while (i < length) {
+      final var c = cypher.charAt(i);
+      if (c == '/' && i + 1 < length && cypher.charAt(i + 1) == '/') {
+        final var eol = cypher.indexOf('\n', i);
+        i = eol < 0 ? length : eol + 1;
+        continue;
+      } else if (c == '/' && i + 1 < length && cypher.charAt(i + 1) == '*') {
+        final var close = cypher.indexOf("*/", i + 2);
+        i = close < 0 ? length : close + 2;
+        continue;
+      } else if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      if (c == '\'' || c == '"' || c == '`') {
+        i = skipQuoted(cypher, i, c);
+      } else if (c == '(' || c == '[' || c == '{') {
+        depth++;
+        i++;
+      } else if (c == ')' || c == ']' || c == '}') {
+        depth--;
+        i++;
+      } else if (Character.isLetter(c) || c == '_') {
+        final var start = i;
+        while (i < length && (Character.isLetterOrDigit(cypher.charAt(i)) || cypher.charAt(i) == '_')) {
+          i++;
+        }
+        if (depth == 0 && isWordPosition(cypher, start)) {
+          words.add(new Word(cypher.substring(start, i).toUpperCase(Locale.ROOT), start));
+        }
+      } else {
+        i++;
+      }
+      end = i;
+    }
+    return new CypherScanner(List.copyOf(words), end);
+  }
+
+  /**
+   * @return the last top level {@code RETURN} word, or {@code -1} when there is none.
+   */
+  int lastReturn() {
+    for (var i = this.words.size() - 1; i >= 0; i--) {
+      if (this.words.get(i).is("RETURN")) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  boolean has(final @NonNull String keyword) {
+    for (final var word : this.words) {
+      if (word.is(keyword)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return {@code cypher} without comments, and with every run of whitespace outside literals collapsed to a single
+   * space, so equivalent queries are sent (and cached by the server) as the same text.
+   */
+  static @NonNull String normalize(final @NonNull String cypher) {
+    final var normalized = new StringBuilder(cypher.length());
+    var separated = false;
+    var i = 0;
+    final var length = cypher.length();
+    while (i < length) {
+      final var c = cypher.charAt(i);
+      if (c == '/' && i + 1 < length && cypher.charAt(i + 1) == '/') {
+        final var eol = cypher.indexOf('\n', i);
+        i = eol < 0 ? length : eol + 1;
+        separated = true;
+      } else if (c == '/' && i + 1 < length && cypher.charAt(i + 1) == '*') {
+        final var close = cypher.indexOf("*/", i + 2);
+        i = close < 0 ? length : close + 2;
+        separated = true;
+      } else if (Character.isWhitespace(c)) {
+        i++;
+        separated = true;
+      } else {
+        if (separated && !normalized.isEmpty()) {
+          normalized.append(' ');
+        }
+        separated = false;
+        final var next = c == '\'' || c == '"' || c == '`' ? skipQuoted(cypher, i, c) : i + 1;
+        normalized.append(cypher, i, next);
+        i = next;
+      }
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * @return index where the statement of {@code cypher} starts, after its {@code CYPHER} prefix (version and options,
+   * like {@code CYPHER 5 runtime=parallel}), or {@code 0} when it has none.
+   */
+  static int statementAt(final @NonNull String cypher) {
+    final var length = cypher.length();
+    if (length < 7 || !cypher.regionMatches(true, 0, "CYPHER", 0, 6) || !Character.isWhitespace(cypher.charAt(6))) {
+      return 0;
+    }
+    var i = 6;
+    while (true) {
+      i = skipWhitespace(cypher, i);
+      if (i < length && Character.isDigit(cypher.charAt(i))) {
+        while (i < length && (Character.isDigit(cypher.charAt(i)) || cypher.charAt(i) == '.')) {
+          i++;
+        }
+        continue;
+      }
+      final var option = i;
+      i = skipIdentifier(cypher, i);
+      final var equals = skipWhitespace(cypher, i);
+      if (i == option || equals >= length || cypher.charAt(equals) != '=') {
+        return option;
+      }
+      i = skipIdentifier(cypher, skipWhitespace(cypher, equals + 1));
+    }
+  }
+
+  private static int skipWhitespace(
+      final @NonNull String cypher,
+      final int at) {
+    var i = at;
+    while (i < cypher.length() && Character.isWhitespace(cypher.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipIdentifier(
+      final @NonNull String cypher,
+      final int at) {
+    var i = at;
+    while (i < cypher.length() && (Character.isLetterOrDigit(cypher.charAt(i)) || cypher.charAt(i) == '_')) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isWordPosition(
+      final @NonNull String cypher,
+      final int at) {
+    if (at == 0) {
+      return true;
+    }
+    final var previous = cypher.charAt(at - 1);
+    return previous != '.' && previous != '$' && previous != ':';
+  }
+
+  static int skipQuoted(
+      final @NonNull String cypher,
+      final int at,
+      final char quote) {
+    var i = at + 1;
+    while (i < cypher.length()) {
+      final var c = cypher.charAt(i);
+      if (c == '\\' && quote != '`') {
+        i += 2;
+      } else if (c == quote) {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return Math.min(i, cypher.length());
+  }
+}
@@ -63,7 +63,7 @@ enum DescribeJavaReturnType
   private static final @NonNull Mapper toPrimitiveChar = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveChar");
   private static final @NonNull Mapper toPrimitiveByte = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveByte");
   private static final @NonNull Mapper toPrimitiveShort = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveShort");
-  private static final @NonNull Mapper toPrimitiveInt = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveInt");
+  private static final @NonNull Mapper toPrimitiveInt = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveInteger");
   private static final @NonNull Mapper toPrimitiveLong = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveLong");
   private static final @NonNull Mapper toPrimitiveFloat = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveFloat");
   private static final @NonNull Mapper toPrimitiveDouble = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toPrimitiveDouble");
@@ -76,12 +76,23 @@ enum DescribeJavaReturnType
   private static final @NonNull Mapper toNullableFloat = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toNullableFloat");
   private static final @NonNull Mapper toNullableDouble = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toNullableDouble");
 
-  private static final @NonNull Mapper asRecord = instanceMethod("value", "matero.queries.neo4j.Map.QueryResult.toNullableRecord");
+  private static final @NonNull Mapper toLongArray = staticMethod("result", "matero.queries.neo4j.Map.QueryResult.toLongArray");
+  private static final @NonNull Mapper toIntArray = staticMethod("result", "matero.queries.neo4j.Map.QueryResult.toIntArray");
+  private static final @NonNull Mapper toDoubleArray = staticMethod("result", "matero.queries.neo4j.Map.QueryResult.toDoubleArray");
+  private static final @NonNull Mapper mapToLong = instanceMethod("__stream", "mapToLong", "record -> " + toPrimitiveLong.str("record.get(0)"));
+  private static final @NonNull Mapper mapToInt = instanceMethod("__stream", "mapToInt", "record -> " + toPrimitiveInt.str("record.get(0)"));
+  private static final @NonNull Mapper mapToDouble = instanceMethod("__stream", "mapToDouble", "record -> " + toPrimitiveDouble.str("record.get(0)"));
+
+  private static final @NonNull Mapper asRecord = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toNullableRecord");
+  private static final @NonNull Mapper asRawList = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toRawList");
+  private static final @NonNull Mapper asRawMap = staticMethod("value", "matero.queries.neo4j.Map.FirstValue.toRawMap");
   private int level = 0;
+  private boolean visitingRecord = false;
 
   @Override
   public @NonNull ReturnTypeBuilder visit(final @NonNull TypeMirror t) {
     this.level = 0;
+    this.visitingRecord = false;
     return visit(t, ReturnType.builder());
   }
 
@@ -123,20 +134,30 @@ enum DescribeJavaReturnType
       final @NonNull ArrayType t,
       final @NonNull ReturnTypeBuilder builder) {
     final var componentType = t.getComponentType();
-    if (componentType.getKind() != TypeKind.BYTE) {
-      throw new IllegalArgumentException("only byte[] are allowed");
+    final var kind = componentType.getKind();
+    final Mapper mapper;
+    switch (kind) {
+      case BYTE -> mapper = asByteArray;
+      case LONG -> mapper = toLongArray;
+      case INT -> mapper = toIntArray;
+      case DOUBLE -> mapper = toDoubleArray;
+      default -> throw new IllegalArgumentException("only byte[], long[], int[] and double[] are allowed");
+    }
+    if (kind != TypeKind.BYTE && this.level != 0) {
+      this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+      throw new IllegalArgumentException(kind.name().toLowerCase() + "[] as component is not supported");
     }
     visitAnnotations(t.getAnnotationMirrors(), builder);
     final var component = componentType.accept(this, ReturnType.builder());
 
     if (component.hasAnnotations()) {
-      builder.javaSpec("byte " + component.getAnnotations() + " []");
+      builder.javaSpec(component.getJavaSpec() + ' ' + component.getAnnotations() + " []");
     } else {
-      builder.javaSpec("byte[]");
+      builder.javaSpec(component.getJavaSpec() + "[]");
     }
     return builder
-        .executionTemplate("return/single")
-        .mapper(asByteArray);
+        .executionTemplate(kind == TypeKind.BYTE ? "return/single" : "return/primitiveArray")
+        .mapper(mapper);
   }
 
   @Override
@@ -218,19 +239,22 @@ enum DescribeJavaReturnType
         builder.mapper(asPoint);
         break;
       case "org.neo4j.driver.Record":
+        if (this.level == 0) {
+          return builder.javaSpec(name).executionTemplate("return/record");
+        }
         builder.mapper(asRecord);
         break;
       case "java.util.List":
         if (this.level > 1) {
           this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
-          throw new IllegalQueriesDefinition(t.asElement(), "List as subcomponent is not supported");
+          throw new IllegalQueriesDefinition(t.asElement(), "List as component is not supported");
         }
         visitList(t, builder);
         return builder;
       case "java.util.Map":
         if (this.level > 1) {
           this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
-          throw new IllegalQueriesDefinition(t.asElement(), "Map as subcomponent is not supported");
+          throw new IllegalQueriesDefinition(t.asElement(), "Map as component is not supported");
         }
         visitMap(t, builder);
         return builder;
@@ -239,9 +263,60 @@ enum DescribeJavaReturnType
           this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
           throw new IllegalQueriesDefinition(t.asElement(), "Stream as component is not supported");
         }
-        visitStream(t, builder);
+        visitStream(t, "Stream", builder);
+        return builder.executionTemplate("return/stream");
+      case "java.util.stream.LongStream", "java.util.stream.IntStream", "java.util.stream.DoubleStream":
+        if (this.level != 0) {
+          this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+          throw new IllegalQueriesDefinition(t.asElement(), name + " as component is not supported");
+        }
+        return builder.javaSpec(name)
+            .executionTemplate("return/primitiveStream")
+            .mapper(switch (name) {
+              case "LongStream" -> mapToLong;
+              case "IntStream" -> mapToInt;
+              default -> mapToDouble;
+            });
+      case "matero.queries.neo4j.QueryCursor":
+        if (this.level != 0) {
+          this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+          throw new IllegalQueriesDefinition(t.asElement(), "QueryCursor as component is not supported");
+        }
+        visitStream(t, "QueryCursor", builder);
+        return builder.executionTemplate("return/cursor");
+      case "matero.queries.neo4j.Page":
+        if (this.level != 0) {
+          this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+          throw new IllegalQueriesDefinition(t.asElement(), "Page as component is not supported");
+        }
+        visitStream(t, "Page", builder);
+        return builder.executionTemplate("return/page");
+      case "java.util.concurrent.Flow.Publisher":
+        if (this.level != 0) {
+          this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+          throw new IllegalQueriesDefinition(t.asElement(), "Flow.Publisher as component is not supported");
+        }
+        visitStream(t, "Flow.Publisher", builder);
+        return builder.executionTemplate("return/flowPublisher");
+      case "org.reactivestreams.Publisher":
+        if (this.level != 0) {
+          this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+          throw new IllegalQueriesDefinition(t.asElement(), "Publisher as component is not supported");
+        }
+        visitStream(t, "Publisher", builder);
+        return builder.executionTemplate("return/publisher");
+      case "java.util.concurrent.CompletionStage", "java.util.concurrent.CompletableFuture":
+        if (this.level != 0) {
+          this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+          throw new IllegalQueriesDefinition(t.asElement(), name + " as component is not supported");
+        }
+        visitAsync(t, name, builder);
         return builder;
       default:
+        if (type.getKind() == ElementKind.RECORD) {
+          visitRecord(type, builder);
+          return builder;
+        }
         throw new IllegalQueriesDefinition(t.asElement(), "unsupported type " + t);
     }
     return builder.javaSpec(name).executionTemplate("return/single");
@@ -252,7 +327,11 @@ enum DescribeJavaReturnType
       final @NonNull ReturnTypeBuilder builder) {
     final var typeArguments = t.getTypeArguments();
     if (typeArguments.isEmpty()) {
-      builder.mapper(this.level == 0 ? null : asList).javaSpec("List");
+      if (this.level == 0) {
+        builder.mapper(asObject).javaSpec("List").executionTemplate("return/list");
+      } else {
+        builder.mapper(asRawList).javaSpec("List");
+      }
     } else {
       this.level++;
       final var componentBuilder = visit(typeArguments.getFirst(), ReturnType.builder());
@@ -265,7 +344,7 @@ enum DescribeJavaReturnType
           builder.mapper(asList.withArgument("row -> " + componentMapper.str("row")));
         }
       } else {
-        if (componentMapper == null || asObject.equals(componentMapper)) {
+        if (componentMapper == null || asRecord.equals(componentMapper)) {
           builder.mapper(null);
         } else {
           builder.mapper(componentMapper);
@@ -288,7 +367,11 @@ enum DescribeJavaReturnType
       final @NonNull ReturnTypeBuilder builder) {
     final var typeArguments = t.getTypeArguments();
     if (typeArguments.isEmpty()) {
-      builder.mapper(this.level == 0 ? null : asMap).javaSpec("Map");
+      if (this.level == 0) {
+        builder.mapper(asMap).javaSpec("Map").executionTemplate("return/single");
+      } else {
+        builder.mapper(asRawMap).javaSpec("Map");
+      }
     } else {
       this.level++;
       final var keyBuilder = visit(typeArguments.getFirst(), ReturnType.builder());
@@ -298,6 +381,10 @@ enum DescribeJavaReturnType
 
       final var valueBuilder = visit(typeArguments.get(1), ReturnType.builder());
       final var valueMapper = valueBuilder.getMapper();
+      if (valueMapper != null && valueMapper.isRows()) {
+        this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+        throw new IllegalQueriesDefinition(t.asElement(), "record as Map value is not supported");
+      }
       if (valueMapper == null || asObject.equals(valueMapper)) {
         builder.mapper(asMap);
       } else {
@@ -320,12 +407,50 @@ enum DescribeJavaReturnType
     }
   }
 
+  private void visitRecord(
+      final @NonNull TypeElement type,
+      final @NonNull ReturnTypeBuilder builder) {
+    if (this.level > 1 || this.visitingRecord) {
+      this.level = 0; // avoid reporting false positives in Lists/Maps to be visited after this error
+      throw new IllegalQueriesDefinition(type, "record as component is not supported");
+    }
+    final var previousLevel = this.level;
+    this.level = 1; // components are read as values of the record, as if they were list elements
+    this.visitingRecord = true;
+    final var columns = new java.util.ArrayList<ReturnType.@NonNull Column>();
+    for (final var component : type.getRecordComponents()) {
+      final var componentMapper = visit(component.asType(), ReturnType.builder()).getMapper();
+      if (componentMapper == null || asRecord.equals(componentMapper)) {
+        throw new IllegalQueriesDefinition(component, "unsupported record component type " + component.asType());
+      }
+      columns.add(new ReturnType.Column(columnOf(component), componentMapper));
+    }
+    this.visitingRecord = false;
+    this.level = previousLevel;
+
+    final var name = type.getSimpleName().toString();
+    builder.javaSpec(name)
+        .executionTemplate("return/single")
+        .mapper(Mapper.rowsOf(name, columns));
+  }
+
+  private static @NonNull String columnOf(final @NonNull RecordComponentElement component) {
+    final var accessor = component.getAccessor();
+    final var alias = accessor == null ? null : accessor.getAnnotation(matero.queries.Alias.class);
+    if (alias == null) {
+      return component.getSimpleName().toString();
+    } else {
+      return alias.value();
+    }
+  }
+
   private void visitStream(
       final @NonNull DeclaredType t,
+      final @NonNull String name,
       final @NonNull ReturnTypeBuilder builder) {
     final var typeArguments = t.getTypeArguments();
     if (typeArguments.isEmpty()) {
-      builder.mapper(null).javaSpec("Stream");
+      builder.mapper(null).javaSpec(name);
     } else {
       this.level++;
       final var componentBuilder = visit(typeArguments.getFirst(), ReturnType.builder());
@@ -335,13 +460,36 @@ enum DescribeJavaReturnType
         builder.mapper(componentBuilder.getMapper());
       }
       if (componentBuilder.hasAnnotations()) {
-        builder.javaSpec("Stream<" + componentBuilder.getAnnotations() + ' ' + componentBuilder.getJavaSpec() + '>');
+        builder.javaSpec(name + '<' + componentBuilder.getAnnotations() + ' ' + componentBuilder.getJavaSpec() + '>');
       } else {
-        builder.javaSpec("Stream<" + componentBuilder.getJavaSpec() + '>');
+        builder.javaSpec(name + '<' + componentBuilder.getJavaSpec() + '>');
       }
       this.level--;
     }
-    builder.executionTemplate("return/stream");
+  }
+
+  private void visitAsync(
+      final @NonNull DeclaredType t,
+      final @NonNull String name,
+      final @NonNull ReturnTypeBuilder builder) {
+    final var typeArguments = t.getTypeArguments();
+    if (typeArguments.isEmpty()) {
+      throw new IllegalQueriesDefinition(t.asElement(), "raw " + name + " is not supported");
+    }
+    final var componentBuilder = visit(typeArguments.getFirst(), ReturnType.builder());
+    final var component = componentBuilder.build();
+    switch (component.executionTemplate) {
+      case "return/single" -> builder.executionTemplate("return/asyncSingle");
+      case "return/list" -> builder.executionTemplate("return/asyncList");
+      case "return/Void" -> builder.executionTemplate("return/asyncVoid");
+      default -> throw new IllegalQueriesDefinition(t.asElement(), component.javaSpec + " as " + name + " component is not supported");
+    }
+    builder.mapper(component.mapper);
+    if (componentBuilder.hasAnnotations()) {
+      builder.javaSpec(name + '<' + componentBuilder.getAnnotations() + ' ' + componentBuilder.getJavaSpec() + '>');
+    } else {
+      builder.javaSpec(name + '<' + componentBuilder.getJavaSpec() + '>');
+    }
   }
 
   @Override
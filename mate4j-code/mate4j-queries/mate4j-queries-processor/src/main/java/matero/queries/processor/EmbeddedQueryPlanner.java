@@ -0,0 +1,86 @@
+package matero.queries.processor;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.neo4j.graphdb.ExecutionPlanDescription;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans queries with an in-process database started from {@code neo4j-harness}, which must be available at the
+ * annotation processor path. This class must only be loaded after checking that, see {@link PlanCheck}.
+ */
+final class EmbeddedQueryPlanner
+    implements QueryPlanner {
+  private final @NonNull Neo4j neo4j;
+  private final @NonNull GraphDatabaseService db;
+
+  EmbeddedQueryPlanner(final @NonNull List<@NonNull String> schema) {
+    this.neo4j = Neo4jBuilders.newInProcessBuilder()
+        .withDisabledServer()
+        .build();
+    this.db = this.neo4j.defaultDatabaseService();
+    try {
+      for (final var statement : schema) {
+        this.db.executeTransactionally(statement);
+      }
+    } catch (final RuntimeException failure) {
+      this.neo4j.close();
+      throw failure;
+    }
+  }
+
+  @Override
+  public @NonNull List<@NonNull Operator> explain(final @NonNull String cypher) {
+    return this.db.executeTransactionally("EXPLAIN " + cypher, Map.of(), result -> {
+      final var operators = new ArrayList<@NonNull Operator>();
+      collect(result.getExecutionPlanDescription(), operators);
+      return operators;
+    });
+  }
+
+  private static void collect(
+      final @NonNull ExecutionPlanDescription plan,
+      final @NonNull List<@NonNull Operator> operators) {
+    final var details = plan.getArguments().get("Details");
+    operators.add(new Operator(plan.getName(), details == null ? "" : details.toString()));
+    for (final var child : plan.getChildren()) {
+      collect(child, operators);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.neo4j.close();
+  }
+}
@@ -0,0 +1,62 @@
+package matero.queries.processor;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.Retry;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Transaction and session settings of a query method, merged from the method and its {@code @Queries} interface.
+ */
+final class ExecutionOptions {
+  final long timeout;
+  final @Nullable ChronoUnit timeoutUnit;
+  final long fetchSize;
+  final @NonNull Map<@NonNull String, @NonNull String> metadata;
+  final @Nullable Retry retry;
+
+  ExecutionOptions(
+      final long timeout,
+      final @Nullable ChronoUnit timeoutUnit,
+      final long fetchSize,
+      final @NonNull Map<@NonNull String, @NonNull String> metadata,
+      final @Nullable Retry retry) {
+    this.timeout = timeout;
+    this.timeoutUnit = timeoutUnit;
+    this.fetchSize = fetchSize;
+    this.metadata = metadata;
+    this.retry = retry;
+  }
+
+  boolean hasTimeout() {
+    return this.timeoutUnit != null;
+  }
+}
@@ -28,8 +28,31 @@ package matero.queries.processor;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-interface ImplementationCodeBuilder {
+/**
+ * Implementations are built in two steps: {@link #describe(QueriesAnnotatedInterface)} reads the processing environment
+ * (which is not thread-safe), while {@link #render(Object)} only reads the description, so interfaces can be rendered
+ * in parallel.
+ *
+ * @param <S> description of an implementation.
+ */
+interface ImplementationCodeBuilder<S> {
+
+  @NonNull
+  S describe(@NonNull QueriesAnnotatedInterface queries);
 
+  /**
+   * Thread-safe.
+   */
   @NonNull
-  String getImplementationCodeFor(@NonNull QueriesAnnotatedInterface queries);
+  String render(@NonNull S implementation);
+
+  /**
+   * @return qualified name of the class rendered for {@code implementation}.
+   */
+  @NonNull
+  String getImplementationClassNameOf(@NonNull S implementation);
+
+  default @NonNull String getImplementationCodeFor(final @NonNull QueriesAnnotatedInterface queries) {
+    return render(describe(queries));
+  }
 }
@@ -112,7 +112,15 @@ final class ImportsParser implements TypeVisitor<@Nullable Void, @Nullable Void>
     final var type = t.asElement();
 
     if (type.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
-      throw new IllegalQueriesDefinition(type, "enclosed types not supported");
+      if (!isFlowPublisher(type)) {
+        throw new IllegalQueriesDefinition(type, "enclosed types not supported");
+      }
+      visitAnnotations(t.getAnnotationMirrors(), null);
+      this.knownImports.add(java.util.concurrent.Flow.class.getCanonicalName());
+      for (final var typeArgument : t.getTypeArguments()) {
+        typeArgument.accept(this, null);
+      }
+      return null;
     }
     visitAnnotations(t.getAnnotationMirrors(), null);
     final var pkg = (PackageElement) type.getEnclosingElement();
@@ -126,6 +134,10 @@ final class ImportsParser implements TypeVisitor<@Nullable Void, @Nullable Void>
     return null;
   }
 
+  private static boolean isFlowPublisher(final @NonNull Element type) {
+    return ((TypeElement) type).getQualifiedName().contentEquals(java.util.concurrent.Flow.Publisher.class.getCanonicalName());
+  }
+
   @Override
   public @Nullable Void visitError(
       final @NonNull ErrorType t,
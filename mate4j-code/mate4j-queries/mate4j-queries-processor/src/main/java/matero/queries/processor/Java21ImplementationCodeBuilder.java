@@ -27,31 +27,77 @@ package matero.queries.processor;
  */
 
 import matero.queries.Alias;
+import matero.queries.Cached;
+import matero.queries.Retry;
+import matero.queries.TransactionType;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.STGroupDir;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder {
-  private final @NonNull String date;
+final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder<Java21ImplementationCodeBuilder.@NonNull ImplSpec> {
+  private static final @NonNull String IMPL_SUFFIX = "Java21Impl";
+  private static final @NonNull Pattern ALIAS = Pattern.compile("\\s+AS\\s+(\\w+|`[^`]*`)$", Pattern.CASE_INSENSITIVE);
+  private static final @NonNull Pattern NEGATION = Pattern.compile("^NOT\\s+", Pattern.CASE_INSENSITIVE);
+  private static final @NonNull Pattern EXISTENCE_CALL = Pattern.compile("(EXISTS|COUNT)\\s*[({]", Pattern.CASE_INSENSITIVE);
+  private static final @NonNull Pattern POSITIVE_COUNT = Pattern.compile("(>\\s*0|>=\\s*1|<>\\s*0|!=\\s*0)");
+
+  /**
+   * Execution templates reading only the first row of the result (and failing when there are more).
+   */
+  private static final java.util.@NonNull Set<@NonNull String> SINGLE_ROW_TEMPLATES = java.util.Set.of(
+      "return/single",
+      "return/record",
+      "return/asyncSingle");
+
+  /**
+   * Execution templates running the query in a blocking {@code Neo4jTx} transaction function, the only ones that can
+   * be retried by a {@code @Retry} policy or invalidate query caches (as their transaction is committed when the method
+   * returns).
+   */
+  private static final java.util.@NonNull Set<@NonNull String> BLOCKING_TEMPLATES = java.util.Set.of(
+      "return/single",
+      "return/computed",
+      "return/list",
+      "return/record",
+      "return/primitiveArray",
+      "return/void",
+      "return/Void",
+      "return/page");
+
+  /**
+   * Templates are compiled once per thread and reused by every round (and compilation, when the compiler is kept alive
+   * by the build tool), as StringTemplate groups are not thread-safe.
+   */
+  private static final @NonNull ThreadLocal<@Nullable STGroup> TEMPLATES = new ThreadLocal<>();
+
+  private final @Nullable String date;
   private final @NonNull ResultProcessor resultProcessor;
 
   private final @NonNull Function<@NonNull TypeMirror, @NonNull Boolean> isVoidWrapper;
+  private final @NonNull Types types;
 
   private final @NonNull ParameterValueMapper parameterValueMapper;
-  private final @NonNull STGroup templates;
+  private final @NonNull Elements elements;
+  private final java.util.@NonNull Map<@NonNull String, @NonNull ReturnType> returnTypes = new java.util.HashMap<>();
 
   Java21ImplementationCodeBuilder(
       final @NonNull LocalDateTime date,
@@ -60,17 +106,17 @@ final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder
   }
 
   Java21ImplementationCodeBuilder(
-      final @NonNull String date,
+      final @Nullable String date,
       final @NonNull ProcessingEnvironment processingEnv) {
     this.date = date;
     final var types = processingEnv.getTypeUtils();
+    this.types = types;
     final var voidWrapper = processingEnv.getElementUtils().getTypeElement(Void.class.getCanonicalName()).asType();
     this.isVoidWrapper = (t) -> types.isSameType(t, voidWrapper);
     this.resultProcessor = new ResultProcessor();
 
-    this.templates = new STGroupDir("templates/java21");
-
     final var elements = processingEnv.getElementUtils();
+    this.elements = elements;
 
     this.parameterValueMapper = new ParameterValueMapper(
         types,
@@ -81,23 +127,90 @@ final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder
   }
 
   @Override
-  public @NonNull String getImplementationCodeFor(final @NonNull QueriesAnnotatedInterface queries) {
-    final var impl = templates.getInstanceOf("impl");
-    ImplSpec java21Spec = asJava21Spec(queries);
-    impl.add("spec", java21Spec);
-    impl.add("date", this.date);
+  public @NonNull ImplSpec describe(final @NonNull QueriesAnnotatedInterface queries) {
+    return asJava21Spec(queries);
+  }
+
+  @Override
+  public @NonNull String render(final @NonNull ImplSpec implementation) {
+    final var impl = templates().getInstanceOf("impl");
+    impl.add("spec", implementation);
+    final var date = this.date;
+    if (date != null) {
+      impl.add("date", date);
+    }
     return impl.render();
   }
 
+  private static @NonNull STGroup templates() {
+    var templates = TEMPLATES.get();
+    if (templates == null) {
+      templates = new Templates();
+      TEMPLATES.set(templates);
+    }
+    return templates;
+  }
+
+  @Override
+  public @NonNull String getImplementationClassNameOf(final @NonNull ImplSpec implementation) {
+    if (implementation.isInRootPackage()) {
+      return implementation.getImplClassName();
+    } else {
+      return implementation.packageName + '.' + implementation.getImplClassName();
+    }
+  }
+
   @NonNull ImplSpec asJava21Spec(final @NonNull QueriesAnnotatedInterface queries) {
+    final var methodSpecs = asMethodSpecs(queries.target.getQualifiedName().toString(), queries.methods);
     return new ImplSpec(
         queries.getPackage().getQualifiedName().toString(),
         queries.imports,
         queries.target.getSimpleName().toString(),
-        asMethodSpecs(queries.methods)
+        methodSpecs,
+        asRowMapperSpecs(methodSpecs)
     );
   }
 
+  @NonNull List<@NonNull RowMapperSpec> asRowMapperSpecs(final @NonNull List<@NonNull MethodSpec> methods) {
+    final var rowMappers = new java.util.LinkedHashMap<@NonNull String, @NonNull RowMapperSpec>();
+    for (final var m : methods) {
+      if (m.returnType.mapper instanceof ReturnType.RowsOf rows) {
+        rowMappers.computeIfAbsent(rows.getRowsClass(), className -> new RowMapperSpec(className, rows));
+      }
+    }
+    return List.copyOf(rowMappers.values());
+  }
+
+  /**
+   * StringTemplate compiles templates lazily when they are first used, sharing state between groups, so loading is
+   * serialized; once loaded, every thread renders its own group.
+   */
+  private static final class Templates extends STGroupDir {
+    private static final @NonNull Object LOCK = new Object();
+
+    Templates() {
+      super(root(), "UTF-8", '<', '>');
+    }
+
+    /**
+     * Templates are looked up next to this class, as the context class loader of the compiler may not see them.
+     */
+    private static java.net.@NonNull URL root() {
+      final var root = Java21ImplementationCodeBuilder.class.getResource("/templates/java21");
+      if (root == null) {
+        throw new IllegalStateException("templates/java21 not found");
+      }
+      return root;
+    }
+
+    @Override
+    protected org.stringtemplate.v4.compiler.@NonNull CompiledST load(final @NonNull String name) {
+      synchronized (LOCK) {
+        return super.load(name);
+      }
+    }
+  }
+
   final static class ImplSpec {
     public final @NonNull String packageName;
     public final @NonNull List<@NonNull String> imports;
@@ -106,15 +219,19 @@ final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder
 
     public final @NonNull List<@NonNull MethodSpec> queryMethods;
 
+    public final @NonNull List<@NonNull RowMapperSpec> rowMappers;
+
     ImplSpec(
         final @NonNull String packageName,
         final @NonNull List<@NonNull String> imports,
         final @NonNull String interfaceClassName,
-        final @NonNull List<@NonNull MethodSpec> queryMethods) {
+        final @NonNull List<@NonNull MethodSpec> queryMethods,
+        final @NonNull List<@NonNull RowMapperSpec> rowMappers) {
       this.packageName = packageName;
       this.imports = imports;
       this.interfaceClassName = interfaceClassName;
       this.queryMethods = queryMethods;
+      this.rowMappers = rowMappers;
     }
 
     public boolean isInRootPackage() {
@@ -125,62 +242,452 @@ final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder
       return QueriesProcessor.class.getCanonicalName();
     }
 
+    public @NonNull List<@NonNull CacheSpec> getCaches() {
+      final var caches = new java.util.ArrayList<@NonNull CacheSpec>();
+      for (final var m : this.queryMethods) {
+        if (m.cache != null) {
+          caches.add(m.cache);
+        }
+      }
+      return caches;
+    }
+
     public @NonNull String getImplClassName() {
-      return this.interfaceClassName + "Java21Impl";
+      return this.interfaceClassName + IMPL_SUFFIX;
     }
   }
 
 
-  @NonNull List<@NonNull MethodSpec> asMethodSpecs(final List<@NonNull QueryMethod> methods) {
+  @NonNull List<@NonNull MethodSpec> asMethodSpecs(
+      final @NonNull String interfaceName,
+      final List<@NonNull QueryMethod> methods) {
     if (methods.isEmpty()) {
       return List.of();
     } else {
-      return methods.stream()
-          .map(this::asMethodSpec)
-          .collect(Collectors.toList());
+      final var cachesResults = methods.stream().anyMatch(m -> m.cached != null);
+      final var names = new java.util.HashSet<@NonNull String>();
+      final var overloaded = new java.util.HashSet<@NonNull String>();
+      for (final var m : methods) {
+        final var name = m.method.getSimpleName().toString();
+        if (!names.add(name)) {
+          overloaded.add(name);
+        }
+      }
+      final var specs = new java.util.ArrayList<@NonNull MethodSpec>(methods.size());
+      for (var i = 0; i < methods.size(); i++) {
+        final var m = methods.get(i);
+        final var name = m.method.getSimpleName().toString();
+        final var suffix = overloaded.contains(name) ? String.valueOf(i) : "";
+        final var invalidates = new java.util.ArrayList<@NonNull String>(m.invalidates.size() + 1);
+        if (cachesResults && m.txType == TransactionType.WRITE) {
+          invalidates.add(this.elements.getConstantExpression(interfaceName));
+        }
+        for (final var other : m.invalidates) {
+          final var literal = this.elements.getConstantExpression(other);
+          if (!invalidates.contains(literal)) {
+            invalidates.add(literal);
+          }
+        }
+        specs.add(asMethodSpec(
+            m,
+            asOptionsSpec(interfaceName, m, "__" + name + "Options" + suffix),
+            interfaceName,
+            "__" + name + "Cache" + suffix,
+            invalidates));
+      }
+      return specs;
+    }
+  }
+
+  @NonNull OptionsSpec asOptionsSpec(
+      final @NonNull String interfaceName,
+      final @NonNull QueryMethod m,
+      final @NonNull String field) {
+    final var methodName = m.method.getSimpleName().toString();
+    final var metadata = new java.util.ArrayList<@NonNull String>(m.options.metadata.size() + 2);
+    metadata.add(metadataEntry("mate4j.interface", interfaceName));
+    metadata.add(metadataEntry("mate4j.method", methodName));
+    m.options.metadata.forEach((key, value) -> metadata.add(metadataEntry(key, value)));
+
+    final @Nullable String timeout;
+    if (m.options.timeoutUnit == null) {
+      timeout = null;
+    } else {
+      timeout = "java.time.Duration.of(" + m.options.timeout + "L, java.time.temporal.ChronoUnit." + m.options.timeoutUnit.name() + ')';
+    }
+    final @Nullable String retry;
+    if (m.options.retry == null) {
+      retry = null;
+    } else {
+      final var unit = "java.time.temporal.ChronoUnit." + m.options.retry.unit().name();
+      retry = "new matero.queries.neo4j.RetryPolicy(" + m.options.retry.maxAttempts()
+              + ", java.time.Duration.of(" + m.options.retry.maxDuration() + "L, " + unit + ").toNanos()"
+              + ", java.time.Duration.of(" + m.options.retry.backoff() + "L, " + unit + ").toNanos())";
     }
+    final var accessMode = m.txType == TransactionType.READ ? "READ" : "WRITE";
+    return new OptionsSpec(field, interfaceName, methodName, accessMode, timeout, metadata, m.options.fetchSize, retry);
   }
 
-  @NonNull MethodSpec asMethodSpec(final @NonNull QueryMethod m) {
-    final var returnType = DescribeJavaReturnType.VISITOR.visit(m.method.getReturnType()).build();
+  private @NonNull String metadataEntry(
+      final @NonNull String key,
+      final @NonNull String value) {
+    return "java.util.Map.entry(" + this.elements.getConstantExpression(key) + ", " + this.elements.getConstantExpression(value) + ')';
+  }
+
+  /**
+   * Return types are described once per type, as most query methods of big code bases share a handful of them.
+   */
+  @NonNull ReturnType returnTypeOf(final @NonNull QueryMethod m) {
+    final var type = m.method.getReturnType();
+    final var key = type.toString();
+    final var cached = this.returnTypes.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final ReturnType returnType;
+    try {
+      returnType = DescribeJavaReturnType.VISITOR.visit(type).build();
+    } catch (final IllegalArgumentException unsupported) {
+      throw new IllegalQueriesDefinition(m.method, String.valueOf(unsupported.getMessage()));
+    }
+    this.returnTypes.put(key, returnType);
+    return returnType;
+  }
+
+  @NonNull MethodSpec asMethodSpec(
+      final @NonNull QueryMethod m,
+      final @NonNull OptionsSpec options,
+      final @NonNull String interfaceName,
+      final @NonNull String cacheField,
+      final @NonNull List<@NonNull String> invalidates) {
+    final var returnType = returnTypeOf(m);
+    if (m.options.retry != null && !BLOCKING_TEMPLATES.contains(returnType.executionTemplate)) {
+      throw new IllegalQueriesDefinition(m.method, "@" + Retry.class.getCanonicalName() + " is only supported by methods executed in blocking transactions");
+    }
+    if (!invalidates.isEmpty() && !BLOCKING_TEMPLATES.contains(returnType.executionTemplate)) {
+      throw new IllegalQueriesDefinition(m.method, "write query methods invalidating @" + Cached.class.getCanonicalName()
+                                                   + " results must be executed in blocking transactions, but " + returnType
+                                                   + " is returned (its transaction is not committed when the method returns)");
+    }
+    final var parameters = m.method.getParameters().stream()
+        .map(this::asParameterSpec)
+        .collect(Collectors.toList());
     return new MethodSpec(
         returnType,
         m.method.getSimpleName().toString(),
-        m.method.getParameters().stream()
-            .map(this::asParameterSpec)
+        parameters,
+        m.literals.entrySet().stream()
+            .map(literal -> new LiteralSpec(literal.getKey(), this.elements.getConstantExpression(literal.getValue())))
             .collect(Collectors.toList()),
         m.method.getThrownTypes().stream()
             .map(it -> ((DeclaredType) it).asElement().getSimpleName().toString())
             .collect(Collectors.toList()),
         m.txType.executorMethod,
-        m.cypher
+        limitedCypherOf(m, returnType),
+        asBatchSpec(m, parameters),
+        asPageSpec(m, parameters),
+        options,
+        asCacheSpec(m, returnType, parameters, interfaceName, cacheField),
+        invalidates
     );
   }
 
+  /**
+   * @return cypher of {@code m}, with a {@code LIMIT} appended to its trailing {@code RETURN} clause when the method
+   * consumes only one row and the query can be limited without changing its meaning.
+   */
+  @NonNull String limitedCypherOf(
+      final @NonNull QueryMethod m,
+      final @NonNull ReturnType returnType) {
+    if (!m.autoLimit || m.page != null || !SINGLE_ROW_TEMPLATES.contains(returnType.executionTemplate)) {
+      return m.cypher;
+    }
+    final var cypher = CypherScanner.of(m.cypher);
+    final var returnAt = cypher.lastReturn();
+    if (returnAt < 0 || cypher.has("UNION")) {
+      return m.cypher;
+    }
+    for (final var word : cypher.words.subList(returnAt, cypher.words.size())) {
+      if (word.is("LIMIT")) {
+        return m.cypher;
+      }
+    }
+    final var end = cypher.end > 0 && m.cypher.charAt(cypher.end - 1) == ';' ? cypher.end - 1 : cypher.end;
+    final var projectionEnd = projectionEnd(cypher, returnAt, end);
+    final var projection = m.cypher.substring(cypher.words.get(returnAt).at() + "RETURN".length(), projectionEnd);
+    final var rows = returnsBoolean(m.method.getReturnType()) && isExistenceCheck(projection) ? 1 : 2;
+    return m.cypher.substring(0, end) + " LIMIT " + rows + m.cypher.substring(end);
+  }
+
+  /**
+   * @return where the projection of the {@code RETURN} clause at {@code returnAt} ends, before its {@code ORDER BY} or
+   * {@code SKIP}.
+   */
+  private static int projectionEnd(
+      final @NonNull CypherScanner cypher,
+      final int returnAt,
+      final int end) {
+    for (final var word : cypher.words.subList(returnAt + 1, cypher.words.size())) {
+      if (word.is("ORDER") || word.is("SKIP")) {
+        return word.at();
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Existence checks ({@code exists(...)}, {@code EXISTS {...}} or {@code count(...) > 0}) produce the same value for
+   * every row, so one row is enough; any other boolean projection still needs a second row to detect too many rows.
+   */
+  private static boolean isExistenceCheck(final @NonNull String projection) {
+    final var expression = NEGATION.matcher(ALIAS.matcher(projection.strip()).replaceFirst("")).replaceFirst("");
+    final var call = EXISTENCE_CALL.matcher(expression);
+    if (!call.lookingAt()) {
+      return false;
+    }
+    final var close = closingOf(expression, call.end() - 1);
+    if (close < 0) {
+      return false;
+    }
+    final var rest = expression.substring(close).strip();
+    return "EXISTS".equalsIgnoreCase(call.group(1)) ? rest.isEmpty() : POSITIVE_COUNT.matcher(rest).matches();
+  }
+
+  /**
+   * @return index right after the bracket closing the one at {@code open}, or {@code -1} when it is not closed.
+   */
+  private static int closingOf(
+      final @NonNull String expression,
+      final int open) {
+    var depth = 0;
+    var i = open;
+    while (i < expression.length()) {
+      final var c = expression.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        i = CypherScanner.skipQuoted(expression, i, c);
+        continue;
+      }
+      if (c == '(' || c == '[' || c == '{') {
+        depth++;
+      } else if ((c == ')' || c == ']' || c == '}') && --depth == 0) {
+        return i + 1;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  private static boolean returnsBoolean(final @NonNull TypeMirror type) {
+    if (type.getKind() == TypeKind.BOOLEAN) {
+      return true;
+    }
+    if (type instanceof DeclaredType declared) {
+      final var name = ((TypeElement) declared.asElement()).getQualifiedName();
+      if (name.contentEquals(Boolean.class.getCanonicalName())) {
+        return true;
+      }
+      // CompletionStage<Boolean> and CompletableFuture<Boolean>
+      final var arguments = declared.getTypeArguments();
+      return arguments.size() == 1 && name.toString().startsWith("java.util.concurrent.") && returnsBoolean(arguments.getFirst());
+    }
+    return false;
+  }
+
+  @Nullable CacheSpec asCacheSpec(
+      final @NonNull QueryMethod m,
+      final @NonNull ReturnType returnType,
+      final @NonNull List<@NonNull ParameterSpec> parameters,
+      final @NonNull String interfaceName,
+      final @NonNull String field) {
+    final var cached = m.cached;
+    if (cached == null) {
+      return null;
+    }
+    if (!"return/single".equals(returnType.executionTemplate) && !"return/list".equals(returnType.executionTemplate)) {
+      throw new IllegalQueriesDefinition(m.method, "@" + Cached.class.getCanonicalName() + " methods must return a single value or a List, but " + returnType + " is returned");
+    }
+    final var resultType = m.method.getReturnType();
+    final String type;
+    if (resultType.getKind().isPrimitive()) {
+      type = this.types.boxedClass((PrimitiveType) resultType).getSimpleName().toString();
+    } else {
+      type = returnType.toString();
+    }
+    return new CacheSpec(
+        field,
+        type,
+        this.elements.getConstantExpression(interfaceName),
+        "java.time.Duration.of(" + cached.ttl() + "L, java.time.temporal.ChronoUnit." + cached.unit().name() + ')',
+        cached.maxEntries(),
+        parameters.stream().map(p -> p.name).collect(Collectors.joining(", ")));
+  }
+
+  @Nullable BatchSpec asBatchSpec(
+      final @NonNull QueryMethod m,
+      final @NonNull List<@NonNull ParameterSpec> parameters) {
+    if (m.batch == null) {
+      return null;
+    } else {
+      return new BatchSpec(parameters.getFirst(), m.batch.size(), this.isVoidWrapper.apply(m.method.getReturnType()));
+    }
+  }
+
+  @Nullable PageSpec asPageSpec(
+      final @NonNull QueryMethod m,
+      final @NonNull List<@NonNull ParameterSpec> parameters) {
+    final var page = m.page;
+    if (page == null) {
+      return null;
+    }
+    final var token = page.token.getSimpleName().toString();
+    return new PageSpec(
+        token,
+        MethodSpec.literalOf(page.first),
+        MethodSpec.literalOf(page.next),
+        page.keys,
+        page.size,
+        parameters.stream().filter(p -> !p.name.equals(token)).collect(Collectors.toList()));
+  }
+
+  /**
+   * Static {@code matero.queries.neo4j.QueryCache} generated for a {@code @Cached} query method.
+   */
+  final static class CacheSpec {
+    public final @NonNull String field;
+    public final @NonNull String type;
+    public final @NonNull String queries;
+    public final @NonNull String ttl;
+    public final int maxEntries;
+    public final @NonNull String key;
+
+    CacheSpec(
+        final @NonNull String field,
+        final @NonNull String type,
+        final @NonNull String queries,
+        final @NonNull String ttl,
+        final int maxEntries,
+        final @NonNull String key) {
+      this.field = field;
+      this.type = type;
+      this.queries = queries;
+      this.ttl = ttl;
+      this.maxEntries = maxEntries;
+      this.key = key;
+    }
+  }
+
+  /**
+   * Static {@code matero.queries.neo4j.QueryOptions} generated for a query method.
+   */
+  final static class OptionsSpec {
+    public final @NonNull String field;
+    public final @NonNull String queries;
+    public final @NonNull String method;
+    public final @NonNull String accessMode;
+    public final @Nullable String timeout;
+    public final @NonNull List<@NonNull String> metadata;
+    public final long fetchSize;
+    public final @Nullable String retry;
+
+    OptionsSpec(
+        final @NonNull String field,
+        final @NonNull String queries,
+        final @NonNull String method,
+        final @NonNull String accessMode,
+        final @Nullable String timeout,
+        final @NonNull List<@NonNull String> metadata,
+        final long fetchSize,
+        final @Nullable String retry) {
+      this.field = field;
+      this.queries = queries;
+      this.method = method;
+      this.accessMode = accessMode;
+      this.timeout = timeout;
+      this.metadata = metadata;
+      this.fetchSize = fetchSize;
+      this.retry = retry;
+    }
+  }
+
+  /**
+   * Row mapper class generated for a java record returned by some query method.
+   */
+  final static class RowMapperSpec {
+    public final @NonNull String className;
+    public final @NonNull String type;
+    public final @NonNull List<@NonNull String> columns;
+    public final @NonNull List<@NonNull String> values;
+
+    RowMapperSpec(
+        final @NonNull String className,
+        final ReturnType.@NonNull RowsOf rows) {
+      this.className = className;
+      this.type = rows.target;
+      this.columns = rows.columns.stream()
+          .map(column -> '"' + column.name() + '"')
+          .collect(Collectors.toList());
+      final var values = new java.util.ArrayList<@NonNull String>(rows.columns.size());
+      for (var i = 0; i < rows.columns.size(); i++) {
+        values.add(rows.columns.get(i).mapper().str("record.get(columns[" + i + "])"));
+      }
+      this.values = values;
+    }
+  }
+
   final static class MethodSpec {
     public final @NonNull ReturnType returnType;
     public final @NonNull String name;
 
     public final @NonNull List<@NonNull ParameterSpec> parameters;
 
+    /**
+     * Literals hoisted from the cypher, sent along with the parameters.
+     */
+    public final @NonNull List<@NonNull LiteralSpec> literals;
+
     public final @NonNull List<@NonNull String> exceptions;
 
     public final @NonNull String executor;
     private final @NonNull String cypher;
 
+    public final @Nullable BatchSpec batch;
+
+    public final @Nullable PageSpec page;
+
+    public final @NonNull OptionsSpec options;
+
+    public final @Nullable CacheSpec cache;
+
+    /**
+     * String literals naming the {@code @Queries} interfaces whose caches are invalidated by this method.
+     */
+    public final @NonNull List<@NonNull String> invalidates;
+
     MethodSpec(
         final @NonNull ReturnType returnType,
         final @NonNull String name,
         final @NonNull List<@NonNull ParameterSpec> parameters,
+        final @NonNull List<@NonNull LiteralSpec> literals,
         final @NonNull List<@NonNull String> exceptions,
         final @NonNull String executor,
-        final @NonNull String cypher) {
+        final @NonNull String cypher,
+        final @Nullable BatchSpec batch,
+        final @Nullable PageSpec page,
+        final @NonNull OptionsSpec options,
+        final @Nullable CacheSpec cache,
+        final @NonNull List<@NonNull String> invalidates) {
       this.returnType = returnType;
       this.name = name;
       this.parameters = parameters;
+      this.literals = literals;
       this.exceptions = exceptions;
       this.executor = executor;
       this.cypher = cypher;
+      this.batch = batch;
+      this.page = page;
+      this.options = options;
+      this.cache = cache;
+      this.invalidates = invalidates;
     }
 
     public boolean isDeclareThrows() {
@@ -188,11 +695,23 @@ final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder
     }
 
     public @NonNull String getCypher() {
-      if (this.cypher.contains("\n")) {
-        return "\"\"\"\n" + this.cypher + "\n\"\"\"";
-      } else {
-        return '"' + this.cypher + '"';
+      return literalOf(this.cypher);
+    }
+
+    static @NonNull String literalOf(final @NonNull String cypher) {
+      final var literal = new StringBuilder(cypher.length() + 2).append('"');
+      for (var i = 0; i < cypher.length(); i++) {
+        final var c = cypher.charAt(i);
+        switch (c) {
+          case '"' -> literal.append("\\\"");
+          case '\\' -> literal.append("\\\\");
+          case '\n' -> literal.append("\\n");
+          case '\r' -> literal.append("\\r");
+          case '\t' -> literal.append("\\t");
+          default -> literal.append(c);
+        }
       }
+      return literal.append('"').toString();
     }
   }
 
@@ -237,4 +756,58 @@ final class Java21ImplementationCodeBuilder implements ImplementationCodeBuilder
       this.value = value;
     }
   }
+
+  final static class LiteralSpec {
+    public final @NonNull String alias;
+    public final @NonNull String value;
+
+    LiteralSpec(
+        final @NonNull String alias,
+        final @NonNull String value) {
+      this.alias = alias;
+      this.value = value;
+    }
+  }
+
+  final static class BatchSpec {
+    public final @NonNull ParameterSpec rows;
+    public final int size;
+    public final boolean returningVoidWrapper;
+
+    BatchSpec(
+        final @NonNull ParameterSpec rows,
+        final int size,
+        final boolean returningVoidWrapper) {
+      this.rows = rows;
+      this.size = size;
+      this.returningVoidWrapper = returningVoidWrapper;
+    }
+  }
+
+  /**
+   * Keyset pagination of a {@code @Paged} query method, the continuation token parameter is not sent to the server.
+   */
+  final static class PageSpec {
+    public final @NonNull String token;
+    public final @NonNull String first;
+    public final @NonNull String next;
+    public final int keys;
+    public final int size;
+    public final @NonNull List<@NonNull ParameterSpec> parameters;
+
+    PageSpec(
+        final @NonNull String token,
+        final @NonNull String first,
+        final @NonNull String next,
+        final int keys,
+        final int size,
+        final @NonNull List<@NonNull ParameterSpec> parameters) {
+      this.token = token;
+      this.first = first;
+      this.next = next;
+      this.keys = keys;
+      this.size = size;
+      this.parameters = parameters;
+    }
+  }
 }
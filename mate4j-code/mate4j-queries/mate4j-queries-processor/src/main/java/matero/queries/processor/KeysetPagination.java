@@ -0,0 +1,215 @@
+package matero.queries.processor;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import matero.queries.Paged;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Cypher of a {@link Paged} query method, rewritten to fetch its first page and the pages continuing after the sort
+ * keys of a previous one (received as the {@code $__after} list).
+ * <p>
+ * Sort keys are added as {@code __key<i>} columns to the last {@code RETURN} clause, which is followed by
+ * {@code ORDER BY} those columns and {@code LIMIT size + 1}, so the extra row tells if there is a next page. Pages
+ * after the first one filter the rows with a keyset predicate in a {@code WITH * WHERE} clause placed right before
+ * the {@code RETURN} clause, so the planner can use an index range seek instead of skipping rows. That predicate
+ * filters the rows before they are projected, so queries aggregating or using {@code DISTINCT} at their
+ * {@code RETURN} clause can not be paged (later pages would aggregate only part of their input rows).
+ */
+final class KeysetPagination {
+  private static final @NonNull Set<@NonNull String> DIRECTIONS = Set.of("ASC", "ASCENDING", "DESC", "DESCENDING");
+  private static final @NonNull Pattern AGGREGATION = Pattern.compile(
+      "(?<![.\\w$])(count|sum|avg|min|max|collect|stDev|stDevP|percentileCont|percentileDisc)\\s*\\(",
+      Pattern.CASE_INSENSITIVE);
+
+  final @NonNull String first;
+  final @NonNull String next;
+  final int keys;
+  final int size;
+  final @NonNull VariableElement token;
+
+  private KeysetPagination(
+      final @NonNull String first,
+      final @NonNull String next,
+      final int keys,
+      final int size,
+      final @NonNull VariableElement token) {
+    this.first = first;
+    this.next = next;
+    this.keys = keys;
+    this.size = size;
+    this.token = token;
+  }
+
+  static @NonNull KeysetPagination of(
+      final @NonNull ExecutableElement method,
+      final @NonNull Paged paged,
+      final @NonNull VariableElement token,
+      final @NonNull String cypher) {
+    final var annotation = "@" + Paged.class.getCanonicalName();
+    if (paged.size() < 1) {
+      throw new IllegalQueriesDefinition(method, annotation + " size must be positive");
+    }
+    if (paged.orderBy().length == 0) {
+      throw new IllegalQueriesDefinition(method, annotation + " orderBy must have at least one expression");
+    }
+    final var statement = cypher.endsWith(";") ? cypher.substring(0, cypher.length() - 1).stripTrailing() : cypher;
+    final var returnAt = lastReturnOf(method, statement);
+    final var clauses = statement.substring(0, returnAt).stripTrailing();
+    if (clauses.isEmpty()) {
+      throw new IllegalQueriesDefinition(method, annotation + " queries must have some clause before RETURN");
+    }
+    final var projection = statement.substring(returnAt + "RETURN".length());
+    if (CypherScanner.of(projection).words.stream().findFirst().filter(word -> word.is("DISTINCT")).isPresent()) {
+      throw new IllegalQueriesDefinition(method, annotation + " queries can not RETURN DISTINCT rows, pages after the first one would filter rows before removing duplicates");
+    }
+    if (AGGREGATION.matcher(withoutLiterals(projection)).find()) {
+      throw new IllegalQueriesDefinition(method, annotation + " queries can not aggregate at their RETURN clause, pages after the first one would aggregate only part of the rows");
+    }
+    final var returns = new StringBuilder(statement.substring(returnAt));
+    final var orderBy = new StringBuilder(" ORDER BY ");
+    final var after = new StringBuilder(" WITH * WHERE ");
+    final var expressions = new java.util.ArrayList<@NonNull String>(paged.orderBy().length);
+    for (var i = 0; i < paged.orderBy().length; i++) {
+      final var key = paged.orderBy()[i].strip();
+      final var space = lastWhitespaceOf(key);
+      final var direction = key.substring(space + 1).toUpperCase(Locale.ROOT);
+      final var directed = space > 0 && DIRECTIONS.contains(direction);
+      final var descending = directed && direction.startsWith("DESC");
+      final var expression = directed ? key.substring(0, space).strip() : key;
+      if (expression.isEmpty()) {
+        throw new IllegalQueriesDefinition(method, annotation + " orderBy can not have blank expressions");
+      }
+      returns.append(", ").append(expression).append(" AS __key").append(i);
+      if (i > 0) {
+        orderBy.append(", ");
+        after.append(" OR ");
+      }
+      orderBy.append("__key").append(i);
+      if (descending) {
+        orderBy.append(" DESC");
+      }
+      after.append(keysetPredicate(expressions, expression, descending, i, paged.orderBy().length > 1));
+      expressions.add(expression);
+    }
+    orderBy.append(" LIMIT ").append(paged.size() + 1);
+    return new KeysetPagination(
+        clauses + ' ' + returns + orderBy,
+        clauses + after + ' ' + returns + orderBy,
+        paged.orderBy().length,
+        paged.size(),
+        token);
+  }
+
+  /**
+   * @return predicate matching rows with the same values as the previous page last row for every preceding sort key,
+   * and placed after it by {@code expression}.
+   */
+  private static @NonNull String keysetPredicate(
+      final @NonNull List<@NonNull String> preceding,
+      final @NonNull String expression,
+      final boolean descending,
+      final int index,
+      final boolean grouped) {
+    final var predicate = new StringBuilder();
+    if (grouped) {
+      predicate.append('(');
+    }
+    for (var j = 0; j < preceding.size(); j++) {
+      predicate.append(preceding.get(j)).append(" = $__after[").append(j).append("] AND ");
+    }
+    predicate.append(expression).append(descending ? " < " : " > ").append("$__after[").append(index).append(']');
+    if (grouped) {
+      predicate.append(')');
+    }
+    return predicate.toString();
+  }
+
+  /**
+   * @return index of the last top level {@code RETURN} clause of {@code cypher}.
+   */
+  private static int lastReturnOf(
+      final @NonNull ExecutableElement method,
+      final @NonNull String cypher) {
+    final var annotation = "@" + Paged.class.getCanonicalName();
+    var returnAt = -1;
+    for (final var word : CypherScanner.of(cypher).words) {
+      switch (word.upperCase()) {
+        case "RETURN" -> returnAt = word.at();
+        case "UNION" -> throw new IllegalQueriesDefinition(method, annotation + " queries can not use UNION");
+        case "ORDER", "SKIP", "OFFSET", "LIMIT" -> {
+          if (returnAt >= 0) {
+            throw new IllegalQueriesDefinition(method, annotation + " queries can not ORDER BY, SKIP nor LIMIT their RETURN clause");
+          }
+        }
+        default -> {
+          // not a clause keyword
+        }
+      }
+    }
+    if (returnAt < 0) {
+      throw new IllegalQueriesDefinition(method, annotation + " queries must end with a RETURN clause");
+    }
+    return returnAt;
+  }
+
+  /**
+   * @return {@code cypher} with its string literals and quoted names blanked, so they are not mistaken for calls.
+   */
+  private static @NonNull String withoutLiterals(final @NonNull String cypher) {
+    final var blanked = new StringBuilder(cypher.length());
+    var i = 0;
+    while (i < cypher.length()) {
+      final var c = cypher.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        final var next = CypherScanner.skipQuoted(cypher, i, c);
+        blanked.append(" ".repeat(next - i));
+        i = next;
+      } else {
+        blanked.append(c);
+        i++;
+      }
+    }
+    return blanked.toString();
+  }
+
+  private static int lastWhitespaceOf(final @NonNull String key) {
+    for (var i = key.length() - 1; i >= 0; i--) {
+      if (Character.isWhitespace(key.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
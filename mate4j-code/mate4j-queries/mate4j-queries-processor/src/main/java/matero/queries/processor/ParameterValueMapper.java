@@ -28,6 +28,7 @@ package matero.queries.processor;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.*;
@@ -49,6 +50,7 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
 
   static {
     final var supportedTypes = new java.util.HashSet<@NonNull String>();
+    supportedTypes.add(Object.class.getCanonicalName());
     supportedTypes.add(String.class.getCanonicalName());
     supportedTypes.add(Boolean.class.getCanonicalName());
     supportedTypes.add(Byte.class.getCanonicalName());
@@ -71,6 +73,12 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
   private final @NonNull TypeMirror collectionType;
   private final @NonNull TypeMirror listType;
   private final @NonNull TypeMirror mapType;
+  /**
+   * Mappers of already seen parameters, by type and name; query methods tend to share their parameters.
+   */
+  private final java.util.@NonNull Map<@NonNull String, @NonNull String> mappers = new java.util.HashMap<>();
+  private final java.util.@NonNull Map<@NonNull Element, @NonNull Boolean> collections = new java.util.HashMap<>();
+  private final java.util.@NonNull Map<@NonNull Element, @NonNull Boolean> maps = new java.util.HashMap<>();
   boolean fromNativelySupported;
 
   ParameterValueMapper(
@@ -129,12 +137,18 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
       final @NonNull ArrayType t,
       final @NonNull ValueMappingContext ctx) {
     this.fromNativelySupported = false;
+    if (t.getComponentType().getKind().isPrimitive()) {
+      // the driver has a Values.value overload for every primitive array, which skips the intermediate boxed List,
+      // but it still maps every element to its own Value (int[]/short[] widened to integers, float[] to floats);
+      // byte[] is sent as a single byte array value and char[] as a string.
+      return "org.neo4j.driver.Values.value(" + ctx.name + ')';
+    }
     final var componentCtx = ctx.ofComponent(t.getComponentType());
     final var componentSerialization = t.getComponentType().accept(this, componentCtx);
     if (this.fromNativelySupported) {
-      return "java.util.List.of(" + ctx.name + ")";
+      return "java.util.Arrays.asList(" + ctx.name + ")";
     } else {
-      return "java.util.Arrays.stream(" + ctx.name + ").map(" + componentCtx.name + " -> " + componentSerialization + ").collect(java.util.Collectors.toList())";
+      return "java.util.Arrays.stream(" + ctx.name + ").map(" + componentCtx.name + " -> " + componentSerialization + ").collect(java.util.stream.Collectors.toList())";
     }
   }
 
@@ -157,7 +171,7 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
       final var componentType = t.getTypeArguments().get(0);
       final var componentCtx = ctx.ofComponent(componentType);
       final var componentSerialization = componentType.accept(this, componentCtx);
-      return ctx.name + ".stream().map(" + componentCtx.name + " -> " + componentSerialization + ").collect(java.util.Collectors.toList())";
+      return ctx.name + ".stream().map(" + componentCtx.name + " -> " + componentSerialization + ").collect(java.util.stream.Collectors.toList())";
     } else if (isCollection(t)) {
       final var componentType = t.getTypeArguments().getFirst();
       final var componentCtx = ctx.ofComponent(componentType);
@@ -165,27 +179,26 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
       if (this.fromNativelySupported) {
         return "java.util.List.copyOf(" + ctx.name + ")";
       } else {
-        return ctx.name + ".stream().map(" + componentCtx.name + " -> " + componentSerialization + ").collect(java.util.Collectors.toList())";
+        return ctx.name + ".stream().map(" + componentCtx.name + " -> " + componentSerialization + ").collect(java.util.stream.Collectors.toList())";
       }
     } else if (isMap(t)) {
       final var typeArguments = t.getTypeArguments();
+      final var entryName = "_e" + ctx.level;
       final var keyType = typeArguments.getFirst();
-      final var keyName = "_k" + ctx.level;
-      final var keyCtx = ctx.ofComponent(keyType, keyName);
-      final var keySerialization = t.accept(this, keyCtx);
+      final var keyCtx = ctx.ofComponent(keyType, entryName + ".getKey()");
+      final var keySerialization = keyType.accept(this, keyCtx);
       final var nativeKey = this.fromNativelySupported;
-      final var valueName = "_v" + ctx.level;
       final var valueType = typeArguments.get(1);
-      final var valueCtx = ctx.ofComponent(valueType, valueName);
-      final var valueSerialization = t.accept(this, valueCtx);
+      final var valueCtx = ctx.ofComponent(valueType, entryName + ".getValue()");
+      final var valueSerialization = valueType.accept(this, valueCtx);
       final var nativeValue = this.fromNativelySupported;
 
-      if (nativeKey && nativeValue) {
+      this.fromNativelySupported = nativeKey && nativeValue;
+      if (this.fromNativelySupported) {
         return ctx.name;
       } else {
-        return ctx.name + ".entrySet().stream().map((" + keyName + ", " + valueName + ") -> " +
-            "new java.util.AbstractMap.SimpleEntry<>(" + keySerialization + ", " + valueSerialization + ")" +
-            ".collect(java.util.Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue())";
+        return ctx.name + ".entrySet().stream().collect(java.util.stream.Collectors.toMap(" +
+            entryName + " -> " + keySerialization + ", " + entryName + " -> " + valueSerialization + "))";
       }
     }
 
@@ -197,14 +210,18 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
       return true;
     } else if (isList(t)) {
       final var typeArguments = t.getTypeArguments();
-      return isNativelySupported((DeclaredType) typeArguments.getFirst());
+      return isNativelySupported(typeArguments.getFirst());
     } else if (isMap(t)) {
       final var typeArguments = t.getTypeArguments();
-      return isNativelySupported((DeclaredType) typeArguments.get(0)) && isNativelySupported((DeclaredType) typeArguments.get(1));
+      return isNativelySupported(typeArguments.get(0)) && isNativelySupported(typeArguments.get(1));
     }
     return false;
   }
 
+  private boolean isNativelySupported(final @NonNull TypeMirror t) {
+    return t instanceof DeclaredType declared && isNativelySupported(declared);
+  }
+
   @NonNull String typeNameOf(final @NonNull DeclaredType t) {
     final var type = (TypeElement) t.asElement();
     return type.getQualifiedName().toString();
@@ -223,11 +240,11 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
   }
 
   boolean isCollection(final @NonNull DeclaredType t) {
-    return this.types.isAssignable(t, this.collectionType);
+    return this.collections.computeIfAbsent(t.asElement(), e -> this.types.isAssignable(t, this.collectionType));
   }
 
   boolean isMap(final @NonNull DeclaredType t) {
-    return this.types.isAssignable(t, this.mapType);
+    return this.maps.computeIfAbsent(t.asElement(), e -> this.types.isAssignable(t, this.mapType));
   }
 
   @Override
@@ -287,6 +304,13 @@ class ParameterValueMapper implements TypeVisitor<@NonNull String, @NonNull Valu
   }
 
   @NonNull String getMapperOf(final @NonNull VariableElement parameter) {
-    return parameter.asType().accept(this, new ValueMappingContext(parameter));
+    final var key = parameter.asType() + " " + parameter.getSimpleName();
+    final var cached = this.mappers.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final var mapper = parameter.asType().accept(this, new ValueMappingContext(parameter));
+    this.mappers.put(key, mapper);
+    return mapper;
   }
 }
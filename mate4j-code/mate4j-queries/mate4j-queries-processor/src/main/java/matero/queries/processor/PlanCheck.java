@@ -0,0 +1,199 @@
+package matero.queries.processor;
+
+/*-
+ * #%L
+ * Mate4j/Code/Queries
+ * %%
+ * Copyright (C) 2023 matero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in check of the execution plan of every query, reporting the operators that usually mean a query lost its index.
+ * <p>
+ * Configured with processor options:
+ * <ul>
+ *   <li>{@code mate4j.planCheck}: {@code off} (default), {@code warn} or {@code error}.</li>
+ *   <li>{@code mate4j.planCheck.schema}: path of a cypher script creating the indexes and constraints, statements
+ *   separated by {@code ;}.</li>
+ *   <li>{@code mate4j.planCheck.largeLabels}: comma separated labels whose {@code NodeByLabelScan} must be reported,
+ *   {@code *} reports scans of any label.</li>
+ * </ul>
+ * Query methods annotated with {@code @SuppressWarnings("mate4j.planCheck")} are not checked.
+ */
+final class PlanCheck
+    implements AutoCloseable {
+  static final @NonNull String MODE = "mate4j.planCheck";
+  static final @NonNull String SCHEMA = "mate4j.planCheck.schema";
+  static final @NonNull String LARGE_LABELS = "mate4j.planCheck.largeLabels";
+
+  private static final @NonNull String HARNESS = "org.neo4j.harness.Neo4jBuilders";
+
+  private final Diagnostic.@NonNull Kind kind;
+  private final @NonNull List<@NonNull String> schema;
+  private final @NonNull Set<@NonNull String> largeLabels;
+  private final @NonNull Function<@NonNull List<@NonNull String>, @NonNull QueryPlanner> plannerFactory;
+  private @Nullable QueryPlanner planner;
+
+  PlanCheck(
+      final Diagnostic.@NonNull Kind kind,
+      final @NonNull List<@NonNull String> schema,
+      final @NonNull Set<@NonNull String> largeLabels,
+      final @NonNull Function<@NonNull List<@NonNull String>, @NonNull QueryPlanner> plannerFactory) {
+    this.kind = kind;
+    this.schema = schema;
+    this.largeLabels = largeLabels;
+    this.plannerFactory = plannerFactory;
+  }
+
+  /**
+   * @return the check configured by {@code options}, or {@code null} when it is disabled.
+   * @throws IllegalArgumentException when options are invalid or {@code neo4j-harness} is not available.
+   */
+  static @Nullable PlanCheck configuredBy(final @NonNull Map<@NonNull String, @NonNull String> options) {
+    final var mode = options.getOrDefault(MODE, "off").toLowerCase(Locale.ROOT);
+    final Diagnostic.@Nullable Kind kind = switch (mode) {
+      case "off" -> null;
+      case "warn" -> Diagnostic.Kind.WARNING;
+      case "error" -> Diagnostic.Kind.ERROR;
+      default -> throw new IllegalArgumentException(MODE + " must be one of off, warn or error, but it is '" + mode + "'");
+    };
+    if (kind == null) {
+      return null;
+    }
+    try {
+      Class.forName(HARNESS, false, PlanCheck.class.getClassLoader());
+    } catch (final ClassNotFoundException e) {
+      throw new IllegalArgumentException(MODE + " requires org.neo4j.test:neo4j-harness at the annotation processor path");
+    }
+    return new PlanCheck(
+        kind,
+        schemaAt(options.get(SCHEMA)),
+        labelsAt(options.getOrDefault(LARGE_LABELS, "")),
+        EmbeddedQueryPlanner::new);
+  }
+
+  private static @NonNull List<@NonNull String> schemaAt(final @Nullable String path) {
+    if (path == null || path.isBlank()) {
+      return List.of();
+    }
+    try {
+      return Arrays.stream(Files.readString(Path.of(path)).split(";"))
+          .map(String::strip)
+          .filter(statement -> !statement.isEmpty())
+          .collect(Collectors.toList());
+    } catch (final IOException e) {
+      throw new IllegalArgumentException("unable to read " + SCHEMA + " script at '" + path + "'", e);
+    }
+  }
+
+  private static @NonNull Set<@NonNull String> labelsAt(final @NonNull String labels) {
+    return Arrays.stream(labels.split(","))
+        .map(String::strip)
+        .filter(label -> !label.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  void check(
+      final @NonNull QueriesAnnotatedInterface queries,
+      final @NonNull Messager messager) {
+    for (final var m : queries.methods) {
+      if (!isSuppressedAt(m.method)) {
+        check(m, messager);
+      }
+    }
+  }
+
+  private void check(
+      final @NonNull QueryMethod m,
+      final @NonNull Messager messager) {
+    final List<QueryPlanner.@NonNull Operator> operators;
+    try {
+      operators = planner().explain(m.cypher);
+    } catch (final RuntimeException failure) {
+      messager.printMessage(this.kind, "query plan check failed, EXPLAIN rejected the query: " + failure.getMessage(), m.method);
+      return;
+    }
+    for (final var operator : operators) {
+      if (isReported(operator)) {
+        messager.printMessage(this.kind, "query plan uses " + describe(operator) + ", an index is probably missing", m.method);
+      }
+    }
+  }
+
+  private @NonNull QueryPlanner planner() {
+    if (this.planner == null) {
+      this.planner = this.plannerFactory.apply(this.schema);
+    }
+    return this.planner;
+  }
+
+  boolean isReported(final QueryPlanner.@NonNull Operator operator) {
+    return switch (operator.name()) {
+      case "AllNodesScan", "CartesianProduct" -> true;
+      case "NodeByLabelScan" -> this.largeLabels.contains("*") || this.largeLabels.contains(labelOf(operator));
+      default -> false;
+    };
+  }
+
+  private static @NonNull String labelOf(final QueryPlanner.@NonNull Operator operator) {
+    final var details = operator.details();
+    return details.substring(details.indexOf(':') + 1).strip();
+  }
+
+  private static @NonNull String describe(final QueryPlanner.@NonNull Operator operator) {
+    if (operator.details().isEmpty()) {
+      return operator.name();
+    } else {
+      return operator.name() + " (" + operator.details() + ')';
+    }
+  }
+
+  private static boolean isSuppressedAt(final @NonNull Element method) {
+    final var suppressed = method.getAnnotation(SuppressWarnings.class);
+    return suppressed != null && Arrays.asList(suppressed.value()).contains(MODE);
+  }
+
+  @Override
+  public void close() {
+    if (this.planner != null) {
+      this.planner.close();
+      this.planner = null;
+    }
+  }
+}
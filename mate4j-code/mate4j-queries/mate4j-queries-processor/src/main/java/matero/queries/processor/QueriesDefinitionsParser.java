@@ -26,32 +26,68 @@ package matero.queries.processor;
  * #L%
  */
 
+import matero.queries.Alias;
+import matero.queries.Batch;
+import matero.queries.Cached;
+import matero.queries.CypherOptions;
+import matero.queries.FetchSize;
+import matero.queries.Invalidates;
+import matero.queries.Paged;
 import matero.queries.Queries;
 import matero.queries.Query;
 import matero.queries.QueryType;
+import matero.queries.Retry;
+import matero.queries.Timeout;
 import matero.queries.TransactionType;
+import matero.queries.TxMetadata;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 final class QueriesDefinitionsParser {
+  private static final @NonNull Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private final @NonNull Types types;
+  private final @NonNull TypeMirror collectionType;
+  private final @NonNull TypeMirror stringType;
   private final @NonNull List<@NonNull QueriesAnnotatedInterface> queries;
   private final @NonNull List<@NonNull QueryMethod> methods;
   private final @NonNull ImportsParser importsParser;
+  private final CypherLiterals.@NonNull Mode literals;
+  private final @NonNull Messager messager;
 
   private final @NonNull StringBuilder sb = new StringBuilder();
 
-  QueriesDefinitionsParser() {
-    this(new java.util.ArrayList<>(), new java.util.ArrayList<>(), new ImportsParser());
+  QueriesDefinitionsParser(
+      final @NonNull ProcessingEnvironment processingEnv,
+      final CypherLiterals.@NonNull Mode literals) {
+    this(processingEnv, literals, new java.util.ArrayList<>(), new java.util.ArrayList<>(), new ImportsParser());
   }
 
   QueriesDefinitionsParser(
+      final @NonNull ProcessingEnvironment processingEnv,
+      final CypherLiterals.@NonNull Mode literals,
       final @NonNull List<@NonNull QueriesAnnotatedInterface> queries,
       final @NonNull List<@NonNull QueryMethod> methods,
       final @NonNull ImportsParser importsParser) {
+    this.literals = literals;
+    this.messager = processingEnv.getMessager();
+    this.types = processingEnv.getTypeUtils();
+    this.collectionType = this.types.erasure(processingEnv.getElementUtils().getTypeElement(java.util.Collection.class.getCanonicalName()).asType());
+    this.stringType = processingEnv.getElementUtils().getTypeElement(String.class.getCanonicalName()).asType();
     this.queries = queries;
     this.methods = methods;
     this.importsParser = importsParser;
@@ -119,22 +155,322 @@ final class QueriesDefinitionsParser {
           .isNotGeneric()
           .doesNotHaveDefaultImplementation();
 
-      final var cypher = getQueryCypher(method, query);
-      final var queryType = getQueryType(method, query, cypher);
+      final var statement = getQueryCypher(method, query);
+      final var queryType = getQueryType(method, query, statement);
       final var txType = getTransactionType(method, query, queryType);
+      final var cypher = withCypherOptions(method, txType, statement);
+      final var batch = method.getAnnotation(Batch.class);
+      final var page = getPagination(method, batch, cypher);
+      final var options = getExecutionOptions(method);
+      final var cached = getCached(method, txType);
+      final var invalidates = getInvalidates(method, txType);
 
       this.importsParser.parse(method);
 
-      return new QueryMethod(
-          method,
-          cypher,
-          queryType,
-          txType);
+      if (batch == null) {
+        final var literals = page == null ? literalsOf(method, cypher) : null;
+        return new QueryMethod(
+            method,
+            literals == null ? cypher : literals.hoisted(maxLiteralsOf(method)),
+            literals == null ? Map.of() : literals.parameters(maxLiteralsOf(method)),
+            queryType,
+            txType,
+            null,
+            page,
+            query.autoLimit(),
+            options,
+            cached,
+            invalidates);
+      } else {
+        return new QueryMethod(
+            method,
+            unwind(method, batch, cypher),
+            Map.of(),
+            queryType,
+            txType,
+            batch,
+            null,
+            false,
+            options,
+            cached,
+            invalidates);
+      }
     }
 
     return null; // method is not annotated -> it does not require to be registered
   }
 
+  /**
+   * @return inline literals of {@code cypher} to hoist, or {@code null} when they must be kept (after warning about
+   * them, if configured so).
+   */
+  private @Nullable CypherLiterals literalsOf(
+      final @NonNull ExecutableElement method,
+      final @NonNull String cypher) {
+    if (this.literals == CypherLiterals.Mode.KEEP) {
+      return null;
+    }
+    final var literals = CypherLiterals.of(cypher);
+    if (literals.literals.isEmpty()) {
+      return null;
+    }
+    if (this.literals == CypherLiterals.Mode.WARN) {
+      for (final var literal : literals.literals) {
+        this.messager.printMessage(
+            Diagnostic.Kind.WARNING,
+            "inline literal " + literal.text() + ", queries differing only by a literal are planned again by the server, use a parameter instead",
+            method);
+      }
+      return null;
+    }
+    return literals;
+  }
+
+  /**
+   * Parameters are sent with {@code java.util.Map.of}, which takes up to 10 entries; literals beyond them are kept.
+   */
+  private static int maxLiteralsOf(final @NonNull ExecutableElement method) {
+    return Math.max(0, 10 - method.getParameters().size());
+  }
+
+  @NonNull String unwind(
+      final @NonNull ExecutableElement method,
+      final @NonNull Batch batch,
+      final @NonNull String cypher) {
+    if (batch.size() < 1) {
+      throw new IllegalQueriesDefinition(method, "@" + Batch.class.getCanonicalName() + " size must be positive");
+    }
+    if (!IDENTIFIER.matcher(batch.row()).matches()) {
+      throw new IllegalQueriesDefinition(method, "@" + Batch.class.getCanonicalName() + " row must be a valid identifier");
+    }
+    if (!returnsVoid(method)) {
+      throw new IllegalQueriesDefinition(method, "@" + Batch.class.getCanonicalName() + " methods must return void or Void");
+    }
+    if (method.getParameters().size() != 1) {
+      throw new IllegalQueriesDefinition(method, "@" + Batch.class.getCanonicalName() + " methods must have a single Collection parameter");
+    }
+    final var rows = method.getParameters().getFirst();
+    if (!this.types.isAssignable(this.types.erasure(rows.asType()), this.collectionType)) {
+      throw new IllegalQueriesDefinition(rows, "@" + Batch.class.getCanonicalName() + " methods must have a single Collection parameter");
+    }
+    final var alias = rows.getAnnotation(Alias.class);
+    final var rowsName = alias == null ? rows.getSimpleName().toString() : alias.value();
+    final var statementAt = CypherScanner.statementAt(cypher);
+    return cypher.substring(0, statementAt) + "UNWIND $" + rowsName + " AS " + batch.row() + ' ' + cypher.substring(statementAt);
+  }
+
+  /**
+   * @return {@code cypher} prefixed by the {@code CYPHER} options configured for {@code method} (or its interface).
+   */
+  @NonNull String withCypherOptions(
+      final @NonNull ExecutableElement method,
+      final @NonNull TransactionType txType,
+      final @NonNull String cypher) {
+    final var atMethod = method.getAnnotation(CypherOptions.class);
+    final var atQueries = method.getEnclosingElement().getAnnotation(CypherOptions.class);
+    if (atMethod == null && atQueries == null) {
+      return cypher;
+    }
+    final var annotation = "@" + CypherOptions.class.getCanonicalName();
+    if (CypherScanner.statementAt(cypher) > 0) {
+      throw new IllegalQueriesDefinition(method, annotation + " can not be used with queries that already have a CYPHER prefix");
+    }
+    final var runtime = atMethod == null || atMethod.runtime() == CypherOptions.Runtime.DEFAULT
+        ? (atQueries == null ? CypherOptions.Runtime.DEFAULT : atQueries.runtime())
+        : atMethod.runtime();
+    final var planner = atMethod == null || atMethod.planner() == CypherOptions.Planner.DEFAULT
+        ? (atQueries == null ? CypherOptions.Planner.DEFAULT : atQueries.planner())
+        : atMethod.planner();
+    final var replan = atMethod == null || atMethod.replan() == CypherOptions.Replan.DEFAULT
+        ? (atQueries == null ? CypherOptions.Replan.DEFAULT : atQueries.replan())
+        : atMethod.replan();
+    if (runtime == CypherOptions.Runtime.PARALLEL && txType != TransactionType.READ) {
+      throw new IllegalQueriesDefinition(method, annotation + " PARALLEL runtime only runs read queries");
+    }
+    final var prefix = new StringBuilder("CYPHER");
+    if (runtime != CypherOptions.Runtime.DEFAULT) {
+      prefix.append(" runtime=").append(runtime.name().toLowerCase(Locale.ROOT));
+    }
+    if (planner != CypherOptions.Planner.DEFAULT) {
+      prefix.append(" planner=").append(planner.name().toLowerCase(Locale.ROOT));
+    }
+    if (replan != CypherOptions.Replan.DEFAULT) {
+      prefix.append(" replan=").append(replan.name().toLowerCase(Locale.ROOT));
+    }
+    if (prefix.length() == "CYPHER".length()) {
+      return cypher;
+    }
+    return prefix.append(' ').append(cypher).toString();
+  }
+
+  @Nullable KeysetPagination getPagination(
+      final @NonNull ExecutableElement method,
+      final @Nullable Batch batch,
+      final @NonNull String cypher) {
+    final var paged = method.getAnnotation(Paged.class);
+    final var returnsPage = returnsPage(method);
+    if (paged == null) {
+      if (returnsPage) {
+        throw new IllegalQueriesDefinition(method, "matero.queries.neo4j.Page can only be returned by @" + Paged.class.getCanonicalName() + " methods");
+      }
+      return null;
+    }
+    if (batch != null) {
+      throw new IllegalQueriesDefinition(method, "@" + Paged.class.getCanonicalName() + " methods can not be @" + Batch.class.getCanonicalName());
+    }
+    if (!returnsPage) {
+      throw new IllegalQueriesDefinition(method, "@" + Paged.class.getCanonicalName() + " methods must return matero.queries.neo4j.Page");
+    }
+    if (method.getParameters().isEmpty()) {
+      throw new IllegalQueriesDefinition(method, "@" + Paged.class.getCanonicalName() + " methods must receive the continuation token as last String parameter");
+    }
+    final var token = method.getParameters().getLast();
+    if (!this.types.isSameType(token.asType(), this.stringType)) {
+      throw new IllegalQueriesDefinition(token, "@" + Paged.class.getCanonicalName() + " methods must receive the continuation token as last String parameter");
+    }
+    return KeysetPagination.of(method, paged, token, cypher);
+  }
+
+  private static boolean returnsPage(final @NonNull ExecutableElement method) {
+    final var returnType = method.getReturnType();
+    if (returnType.getKind() == TypeKind.DECLARED) {
+      final var type = (TypeElement) ((DeclaredType) returnType).asElement();
+      return type.getQualifiedName().contentEquals("matero.queries.neo4j.Page");
+    }
+    return false;
+  }
+
+  @Nullable Cached getCached(
+      final @NonNull ExecutableElement method,
+      final @NonNull TransactionType txType) {
+    final var cached = method.getAnnotation(Cached.class);
+    if (cached == null) {
+      return null;
+    }
+    if (txType != TransactionType.READ) {
+      throw new IllegalQueriesDefinition(method, "@" + Cached.class.getCanonicalName() + " is only allowed at read queries");
+    }
+    if (cached.ttl() < 1) {
+      throw new IllegalQueriesDefinition(method, "@" + Cached.class.getCanonicalName() + " ttl must be positive");
+    }
+    if (cached.maxEntries() < 1) {
+      throw new IllegalQueriesDefinition(method, "@" + Cached.class.getCanonicalName() + " maxEntries must be positive");
+    }
+    for (final var parameter : method.getParameters()) {
+      if (parameter.asType().getKind() == TypeKind.ARRAY) {
+        throw new IllegalQueriesDefinition(parameter, "@" + Cached.class.getCanonicalName() + " methods can not have array parameters, arrays are compared by identity");
+      }
+    }
+    return cached;
+  }
+
+  @NonNull List<@NonNull String> getInvalidates(
+      final @NonNull ExecutableElement method,
+      final @NonNull TransactionType txType) {
+    final var invalidates = method.getAnnotation(Invalidates.class);
+    if (invalidates == null) {
+      return List.of();
+    }
+    if (txType != TransactionType.WRITE) {
+      throw new IllegalQueriesDefinition(method, "@" + Invalidates.class.getCanonicalName() + " is only allowed at write queries");
+    }
+    List<? extends TypeMirror> targets;
+    try {
+      invalidates.value();
+      targets = List.of(); // unreachable, class values are not available while processing
+    } catch (final MirroredTypesException e) {
+      targets = e.getTypeMirrors();
+    }
+    final var names = new java.util.ArrayList<@NonNull String>(targets.size());
+    for (final var target : targets) {
+      final var element = this.types.asElement(target);
+      if (!(element instanceof TypeElement type) || type.getAnnotation(Queries.class) == null) {
+        throw new IllegalQueriesDefinition(method, "@" + Invalidates.class.getCanonicalName() + " only accepts @" + Queries.class.getCanonicalName() + " interfaces, but " + target + " is not");
+      }
+      names.add(type.getQualifiedName().toString());
+    }
+    return names;
+  }
+
+  @NonNull ExecutionOptions getExecutionOptions(final @NonNull ExecutableElement method) {
+    final var queries = method.getEnclosingElement();
+
+    var timeout = method.getAnnotation(Timeout.class);
+    if (timeout == null) {
+      timeout = queries.getAnnotation(Timeout.class);
+    }
+    if (timeout != null && timeout.value() < 1) {
+      throw new IllegalQueriesDefinition(method, "@" + Timeout.class.getCanonicalName() + " value must be positive");
+    }
+
+    var fetchSize = method.getAnnotation(FetchSize.class);
+    if (fetchSize == null) {
+      fetchSize = queries.getAnnotation(FetchSize.class);
+    }
+    if (fetchSize != null && fetchSize.value() < 1) {
+      throw new IllegalQueriesDefinition(method, "@" + FetchSize.class.getCanonicalName() + " value must be positive");
+    }
+
+    var retry = method.getAnnotation(Retry.class);
+    if (retry == null) {
+      retry = queries.getAnnotation(Retry.class);
+    }
+    if (retry != null) {
+      final var annotation = "@" + Retry.class.getCanonicalName();
+      if (retry.maxAttempts() < 1) {
+        throw new IllegalQueriesDefinition(method, annotation + " maxAttempts must be positive");
+      }
+      if (retry.maxDuration() < 1) {
+        throw new IllegalQueriesDefinition(method, annotation + " maxDuration must be positive");
+      }
+      if (retry.backoff() < 1) {
+        throw new IllegalQueriesDefinition(method, annotation + " backoff must be positive");
+      }
+    }
+
+    final var metadata = new java.util.LinkedHashMap<@NonNull String, @NonNull String>();
+    putMetadata(method, queries.getAnnotationsByType(TxMetadata.class), metadata);
+    putMetadata(method, method.getAnnotationsByType(TxMetadata.class), metadata);
+
+    return new ExecutionOptions(
+        timeout == null ? 0 : timeout.value(),
+        timeout == null ? null : timeout.unit(),
+        fetchSize == null ? 0 : fetchSize.value(),
+        metadata,
+        retry);
+  }
+
+  private static void putMetadata(
+      final @NonNull ExecutableElement method,
+      final @NonNull TxMetadata @NonNull [] entries,
+      final java.util.@NonNull Map<@NonNull String, @NonNull String> metadata) {
+    final var declared = new java.util.HashSet<@NonNull String>();
+    for (final var entry : entries) {
+      if (entry.key().isBlank()) {
+        throw new IllegalQueriesDefinition(method, "@" + TxMetadata.class.getCanonicalName() + " key can not be blank");
+      }
+      if (entry.key().startsWith("mate4j.")) {
+        throw new IllegalQueriesDefinition(method, "@" + TxMetadata.class.getCanonicalName() + " keys starting with 'mate4j.' are reserved");
+      }
+      if (!declared.add(entry.key())) {
+        throw new IllegalQueriesDefinition(method, "@" + TxMetadata.class.getCanonicalName() + " key '" + entry.key() + "' is declared more than once");
+      }
+      metadata.put(entry.key(), entry.value());
+    }
+  }
+
+  private static boolean returnsVoid(final @NonNull ExecutableElement method) {
+    final var returnType = method.getReturnType();
+    if (returnType.getKind() == TypeKind.VOID) {
+      return true;
+    }
+    if (returnType.getKind() == TypeKind.DECLARED) {
+      final var type = (TypeElement) ((DeclaredType) returnType).asElement();
+      return type.getQualifiedName().contentEquals(Void.class.getCanonicalName());
+    }
+    return false;
+  }
+
   @NonNull TransactionType getTransactionType(
       final @NonNull ExecutableElement method,
       final @NonNull Query query,
@@ -184,7 +520,7 @@ final class QueriesDefinitionsParser {
     if (cypher.isBlank()) {
       throw new IllegalQueriesDefinition(method, "@" + Query.class.getCanonicalName() + " can not have blank " + property);
     }
-    return cypher.trim();
+    return CypherScanner.normalize(cypher);
   }
 
   @NonNull QueryType getQueryType(
@@ -193,14 +529,18 @@ final class QueriesDefinitionsParser {
       final @NonNull String cypher) {
     final var type = query.queryType();
     if (type == QueryType.UNKNOWN) {
-      return switch (cypher.charAt(0)) {
-        case 'C', 'c' -> switch (cypher.charAt(1)) {
+      final var statement = cypher.substring(CypherScanner.statementAt(cypher));
+      if (statement.length() < 2) {
+        throw new IllegalQueriesDefinition(method, "can not deduct type of statemente for '" + cypher + "'.");
+      }
+      return switch (statement.charAt(0)) {
+        case 'C', 'c' -> switch (statement.charAt(1)) {
           case 'A', 'a' -> QueryType.CALL;
           case 'R', 'r' -> QueryType.CREATE;
           default -> throw new IllegalQueriesDefinition(method, "can not deduct type of statemente for '" + cypher + "'.");
         };
         case 'D', 'd' -> QueryType.DELETE;
-        case 'M', 'm' -> switch (cypher.charAt(1)) {
+        case 'M', 'm' -> switch (statement.charAt(1)) {
           case 'A', 'a' -> QueryType.MATCH;
           case 'E', 'e' -> QueryType.MERGE;
           default -> throw new IllegalQueriesDefinition(method, "can not deduct type of statemente for '" + cypher + "'.");
@@ -27,8 +27,17 @@ package matero.queries.processor;
  */
 
 import com.google.auto.service.AutoService;
+import matero.queries.Batch;
+import matero.queries.Cached;
+import matero.queries.CypherOptions;
+import matero.queries.FetchSize;
+import matero.queries.Invalidates;
+import matero.queries.Paged;
 import matero.queries.Query;
 import matero.queries.Queries;
+import matero.queries.Retry;
+import matero.queries.Timeout;
+import matero.queries.TxMetadata;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -37,23 +46,33 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Set;
 
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 @AutoService(Processor.class)
 public class QueriesProcessor extends AbstractProcessor {
+  /**
+   * Date written at the {@code @Generated} annotation of every implementation, an ISO date time or {@code none} to
+   * omit it. Builds reusing outputs from a cache should set it, as processing time is used by default.
+   */
+  static final @NonNull String GENERATED_DATE = "mate4j.generatedDate";
 
-  private final @NonNull String today;
+  private final @Nullable String fixedDate;
+  private @Nullable String today;
+  private @Nullable PlanCheck planCheck;
+  private CypherLiterals.@NonNull Mode literals = CypherLiterals.Mode.WARN;
 
   public QueriesProcessor() {
-    this(LocalDateTime.now());
+    this.fixedDate = null;
   }
 
   QueriesProcessor(final @NonNull String today) {
-    this.today = today;
+    this.fixedDate = today;
   }
 
   QueriesProcessor(final @NonNull LocalDateTime today) {
@@ -63,25 +82,82 @@ public class QueriesProcessor extends AbstractProcessor {
 
   @Override
   public @NonNull Set<@NonNull String> getSupportedAnnotationTypes() {
-    return Set.of(Queries.class.getCanonicalName(), Query.class.getCanonicalName());
+    return Set.of(
+        Queries.class.getCanonicalName(), Query.class.getCanonicalName(), Batch.class.getCanonicalName(),
+        FetchSize.class.getCanonicalName(), Timeout.class.getCanonicalName(), TxMetadata.class.getCanonicalName(),
+        TxMetadata.List.class.getCanonicalName(), Cached.class.getCanonicalName(), Invalidates.class.getCanonicalName(),
+        Paged.class.getCanonicalName(), CypherOptions.class.getCanonicalName(), Retry.class.getCanonicalName());
+  }
+
+  @Override
+  public @NonNull Set<@NonNull String> getSupportedOptions() {
+    return Set.of(GENERATED_DATE, CypherLiterals.MODE, PlanCheck.MODE, PlanCheck.SCHEMA, PlanCheck.LARGE_LABELS);
+  }
+
+  @Override
+  public synchronized void init(final @NonNull ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    try {
+      this.today = this.fixedDate == null ? generatedDateOf(processingEnv.getOptions().get(GENERATED_DATE)) : this.fixedDate;
+    } catch (final DateTimeParseException failure) {
+      messager().printMessage(Diagnostic.Kind.ERROR, GENERATED_DATE + " must be an ISO date time or none, but it is '" + failure.getParsedString() + "'");
+    }
+    try {
+      this.literals = CypherLiterals.Mode.configuredBy(processingEnv.getOptions());
+    } catch (final IllegalArgumentException failure) {
+      messager().printMessage(Diagnostic.Kind.ERROR, String.valueOf(failure.getMessage()));
+    }
+    try {
+      this.planCheck = PlanCheck.configuredBy(processingEnv.getOptions());
+    } catch (final IllegalArgumentException failure) {
+      messager().printMessage(Diagnostic.Kind.ERROR, String.valueOf(failure.getMessage()));
+    }
+  }
+
+  private static @Nullable String generatedDateOf(final @Nullable String option) {
+    if (option == null) {
+      return LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
+    }
+    if ("none".equals(option)) {
+      return null;
+    }
+    DateTimeFormatter.ISO_DATE_TIME.parse(option);
+    return option;
   }
 
   @Override
   public boolean process(
       final @NonNull Set<@NonNull ? extends TypeElement> annotations,
       final @NonNull RoundEnvironment roundEnv) {
-    processSpecifications(roundEnv.getElementsAnnotatedWith(Queries.class));
+    try {
+      processSpecifications(roundEnv.getElementsAnnotatedWith(Queries.class));
+    } finally {
+      if (roundEnv.processingOver() && this.planCheck != null) {
+        this.planCheck.close();
+      }
+    }
     return false;
   }
 
   private void processSpecifications(final @NonNull Set<@NonNull ? extends Element> specifications) {
     if (!specifications.isEmpty()) {
-      generateCodeFor(queriesAt(specifications));
+      final var queries = queriesAt(specifications);
+      generateCodeFor(queries);
+      checkPlansOf(queries);
+    }
+  }
+
+  private void checkPlansOf(final @NonNull List<@NonNull QueriesAnnotatedInterface> queries) {
+    final var check = this.planCheck;
+    if (check != null) {
+      for (final var q : queries) {
+        check.check(q, messager());
+      }
     }
   }
 
   private @NonNull List<@NonNull QueriesAnnotatedInterface> queriesAt(final @NonNull Set<@NonNull ? extends Element> specifications) {
-    final var queriesParser = new QueriesDefinitionsParser();
+    final var queriesParser = new QueriesDefinitionsParser(this.processingEnv, this.literals);
 
     for (final var spec : specifications) {
       try {
@@ -97,13 +173,32 @@ public class QueriesProcessor extends AbstractProcessor {
   private void generateCodeFor(final @NonNull List<@NonNull QueriesAnnotatedInterface> queries) {
     if (!queries.isEmpty()) {
       final var codeBuilder = new Java21ImplementationCodeBuilder(this.today, this.processingEnv);
+      // the processing environment is not thread-safe, so interfaces are described one at a time and only rendered in
+      // parallel
+      final var described = new java.util.ArrayList<@NonNull QueriesAnnotatedInterface>(queries.size());
+      final var specs = new java.util.ArrayList<Java21ImplementationCodeBuilder.@NonNull ImplSpec>(queries.size());
       for (final var q : queries) {
         try {
-          System.out.println(codeBuilder.getImplementationCodeFor(q));
+          specs.add(codeBuilder.describe(q));
+          described.add(q);
         } catch (final IllegalQueriesDefinition failure) {
           error(failure.element, failure.getMessage());
         }
       }
+      final var codes = specs.parallelStream().map(codeBuilder::render).toList();
+      for (var i = 0; i < specs.size(); i++) {
+        final var spec = specs.get(i);
+        final var q = described.get(i);
+        try {
+          // the interface is the only originating element, as required by isolating incremental processing
+          final var source = this.processingEnv.getFiler().createSourceFile(codeBuilder.getImplementationClassNameOf(spec), q.target);
+          try (final var writer = source.openWriter()) {
+            writer.write(codes.get(i));
+          }
+        } catch (final IOException failure) {
+          error(q.target, "implementation could not be written, " + failure.getMessage());
+        }
+      }
     }
   }
 
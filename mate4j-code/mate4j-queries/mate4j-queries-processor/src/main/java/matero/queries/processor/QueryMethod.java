@@ -26,26 +26,55 @@ package matero.queries.processor;
  * #L%
  */
 
+import matero.queries.Batch;
+import matero.queries.Cached;
 import matero.queries.QueryType;
 import matero.queries.TransactionType;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import javax.lang.model.element.ExecutableElement;
+import java.util.List;
+import java.util.Map;
 
 final class QueryMethod {
    final @NonNull ExecutableElement method;
    final @NonNull String cypher;
+   /**
+    * Values of the literals hoisted from the cypher, by parameter name.
+    */
+   final @NonNull Map<@NonNull String, @NonNull Object> literals;
    final @NonNull QueryType queryType;
    final @NonNull TransactionType txType;
+   final @Nullable Batch batch;
+   final @Nullable KeysetPagination page;
+   final boolean autoLimit;
+   final @NonNull ExecutionOptions options;
+   final @Nullable Cached cached;
+   final @NonNull List<@NonNull String> invalidates;
 
   QueryMethod(
       final @NonNull ExecutableElement method,
       final @NonNull String cypher,
+      final @NonNull Map<@NonNull String, @NonNull Object> literals,
       final @NonNull QueryType queryType,
-      final @NonNull TransactionType txType) {
+      final @NonNull TransactionType txType,
+      final @Nullable Batch batch,
+      final @Nullable KeysetPagination page,
+      final boolean autoLimit,
+      final @NonNull ExecutionOptions options,
+      final @Nullable Cached cached,
+      final @NonNull List<@NonNull String> invalidates) {
     this.method = method;
     this.cypher = cypher;
+    this.literals = literals;
     this.queryType = queryType;
     this.txType = txType;
+    this.batch = batch;
+    this.page = page;
+    this.autoLimit = autoLimit;
+    this.options = options;
+    this.cached = cached;
+    this.invalidates = invalidates;
   }
 }
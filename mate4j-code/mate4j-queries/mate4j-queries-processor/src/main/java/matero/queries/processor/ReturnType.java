@@ -29,8 +29,10 @@ package matero.queries.processor;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.List;
+
 final class ReturnType {
-  static sealed abstract class Mapper permits StaticMethod, InstanceMethod {
+  static sealed abstract class Mapper permits StaticMethod, InstanceMethod, RowsOf {
     final @NonNull String target;
     final @NonNull String method;
 
@@ -69,6 +71,13 @@ final class ReturnType {
       return str(this.target);
     }
 
+    /**
+     * @return {@code true} when the mapper converts a whole record instead of its first value.
+     */
+    public boolean isRows() {
+      return false;
+    }
+
     static @NonNull Mapper staticMethod(
         final @NonNull String target,
         final @NonNull String method) {
@@ -82,6 +91,12 @@ final class ReturnType {
       return new StaticMethod(target, method, argument);
     }
 
+    static @NonNull RowsOf rowsOf(
+        final @NonNull String recordType,
+        final @NonNull List<@NonNull Column> columns) {
+      return new RowsOf(recordType, columns);
+    }
+
     static @NonNull Mapper instanceMethod(
         final @NonNull String target,
         final @NonNull String method) {
@@ -150,6 +165,51 @@ final class ReturnType {
     }
   }
 
+  /**
+   * Maps a record through an instance of a generated {@code matero.queries.neo4j.RowMapper}, declared as
+   * {@code __rows} by the execution templates.
+   */
+  static final class RowsOf extends Mapper {
+    final @NonNull List<@NonNull Column> columns;
+
+    private RowsOf(
+        final @NonNull String recordType,
+        final @NonNull List<@NonNull Column> columns) {
+      super(recordType, "apply", "record");
+      this.columns = columns;
+    }
+
+    @Override
+    public boolean isRows() {
+      return true;
+    }
+
+    public @NonNull String getRowsClass() {
+      return this.target + "Rows";
+    }
+
+    @Override
+    @NonNull String str(final @NonNull String target) {
+      return "__rows.apply(record)";
+    }
+
+    @Override
+    @NonNull Mapper make(
+        final @NonNull String target,
+        final @NonNull String method,
+        final @NonNull String argument) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * A record component, read from the column named {@code name} using {@code mapper}.
+   */
+  record Column(
+      @NonNull String name,
+      @NonNull Mapper mapper) {
+  }
+
   public final @NonNull String annotations;
   public final @NonNull String javaSpec;
   public final @NonNull String executionTemplate;
@@ -65,7 +65,7 @@ enum PlayersJ21Impl implements Players {
         java.util.Map.of("id", Values.value(id))
     );
 
-    return matero.queries.neo4j.CurrentSession.get().executeRead(tx -> {
+    return matero.queries.neo4j.Neo4jTx.executeRead(tx -> {
       final var result = tx.run(__query);
       if (!result.hasNext()) {
         throw new matero.queries.EmptyResult();
@@ -88,7 +88,7 @@ enum PlayersJ21Impl implements Players {
             DETACH DELETE n""",
         java.util.Map.of("id", Values.value(id))
     );
-    matero.queries.neo4j.CurrentSession.get().executeWrite(tx -> tx.run(__query));
+    matero.queries.neo4j.Neo4jTx.executeWrite(tx -> tx.run(__query));
   }
 
   @Override
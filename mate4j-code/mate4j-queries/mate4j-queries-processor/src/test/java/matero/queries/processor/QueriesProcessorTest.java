@@ -26,25 +26,50 @@ package matero.queries.processor;
  * #L%
  */
 
+import com.google.testing.compile.Compiler;
 import com.google.testing.compile.JavaFileObjects;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.types.*;
 
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.*;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
+import static com.google.common.truth.Truth.assertWithMessage;
 import static com.google.testing.compile.CompilationSubject.assertThat;
-import static com.google.testing.compile.Compiler.javac;
 
 public class QueriesProcessorTest {
 
   private static final LocalDateTime PROCESSING_DATETIME = LocalDateTime.of(2008, Month.MARCH, 20, 8, 30, 0);
+  /**
+   * Microseconds per query method, about 6 times the time taken on a developer machine.
+   */
+  private static final long PROCESSOR_BUDGET = 2_000;
+
+  /**
+   * Generated implementations are compiled too, and they depend on mate4j-queries-neo4j, which uses preview features.
+   */
+  private static Compiler javac(final @NonNull String... options) {
+    return Compiler.javac().withOptions(Stream.concat(Stream.of("--release", "21", "--enable-preview"), Stream.of(options)).toList());
+  }
 
   @Test
   void non_annotated_class_should_be_compilable() {
@@ -133,7 +158,8 @@ public class QueriesProcessorTest {
 
   @ParameterizedTest
   @ValueSource(classes = {byte[].class, Object.class, String.class, Entity.class, Node.class, Relationship.class, Path.class, IsoDuration.class,
-      Point.class, LocalDate.class, LocalDateTime.class, OffsetTime.class, OffsetDateTime.class, LocalTime.class, ZonedDateTime.class})
+      Point.class, LocalDate.class, LocalDateTime.class, OffsetTime.class, OffsetDateTime.class, LocalTime.class, ZonedDateTime.class,
+      Record.class})
   void query_method_returning_supported_class_reference_should_be_compilable(final @NonNull Class<?> supportedClass) {
     final var qname = supportedClass.getCanonicalName();
 
@@ -210,6 +236,60 @@ public class QueriesProcessorTest {
         .succeeded();
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"long[]", "int[]", "short[]", "byte[]", "double[]", "float[]", "boolean[]", "char[]", "Long[]", "String[]",
+      "long[][]", "java.util.List<int[]>"})
+  void query_method_with_array_parameter_should_be_compilable(final @NonNull String parameterType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player) WHERE p.id IN $ids RETURN p.name") java.util.List<String> names(""" + parameterType + " ids);\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"long[]", "int[]", "double[]", "java.util.stream.LongStream", "java.util.stream.IntStream",
+      "java.util.stream.DoubleStream"})
+  void query_method_returning_primitive_array_or_stream_should_be_compilable(final @NonNull String returnType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player) RETURN id(p)") """ + returnType + " ids();\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"float[]", "boolean[]", "java.util.List<long[]>", "java.util.Map<String, int[]>",
+      "java.util.List<java.util.stream.LongStream>", "java.util.concurrent.CompletionStage<double[]>"})
+  void query_method_returning_unsupported_primitive_array_or_stream_should_NOT_be_compilable(final @NonNull String returnType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player) RETURN id(p)") """ + returnType + " ids();\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+  }
+
   @Test
   void query_method_returning_list_as_2nd_level_component_should_NOT_be_compilable() {
     final var listType = List.class.getCanonicalName() + "<" + List.class.getCanonicalName() + "<" + List.class.getCanonicalName() + "<Boolean>>>";
@@ -271,4 +351,967 @@ public class QueriesProcessorTest {
         .succeeded();
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "void insert(java.util.List<java.util.Map<String, Object>> players)",
+      "Void insert(java.util.Collection<String> players)",
+      "void insert(@Alias(\"players\") java.util.Set<Long> ids)"})
+  void batched_query_method_should_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Batch(size = 500, row = "player")
+              @Query("CREATE (:Player {name: player})") """ + declaration + ";\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "long insert(java.util.List<String> players)",
+      "void insert(java.util.List<String> players, long team)",
+      "void insert(String player)"})
+  void batched_query_method_without_single_collection_parameter_or_returning_values_should_NOT_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Batch
+              @Query("CREATE (:Player {name: row})") """ + declaration + ";\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("@matero.queries.Batch methods must");
+  }
+
+  @Test
+  void implementation_should_be_generated_through_filer_with_processing_date() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", PLAYERS));
+    assertThat(compilation)
+        .succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .contains("date=\"2008-03-20T08:30:00\"");
+  }
+
+  @Test
+  void implementation_should_be_deterministic_when_generated_date_is_configured() throws IOException {
+    final var first = javac("-Amate4j.generatedDate=none")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", PLAYERS));
+    final var second = javac("-Amate4j.generatedDate=none")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", PLAYERS));
+    final var implementation = first.generatedSourceFile("sample.queries.PlayersJava21Impl").orElseThrow();
+    assertThat(second)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .isEqualTo(implementation.getCharContent(false).toString());
+    assertThat(second)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .doesNotContain("date=");
+  }
+
+  @Test
+  void invalid_generated_date_should_NOT_be_compilable() {
+    final var compilation = javac("-Amate4j.generatedDate=yesterday")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", PLAYERS));
+    assertThat(compilation)
+        .hadErrorContaining("mate4j.generatedDate must be an ISO date time or none");
+  }
+
+  @Test
+  void boolean_query_methods_NOT_checking_existence_should_still_detect_too_many_rows() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player {team: $team}) RETURN p.active") boolean active(String team);
+              @Query("MATCH (p:Player {team: $team}) RETURN count(p) > 10") Boolean crowded(String team);
+              @Query("MATCH (p:Player {team: $team}) RETURN exists(p.retiredAt) OR p.injured ORDER BY p.name") boolean unavailable(String team);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    final var implementation = assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String();
+    implementation.contains("\"MATCH (p:Player {team: $team}) RETURN p.active LIMIT 2\"");
+    implementation.contains("\"MATCH (p:Player {team: $team}) RETURN count(p) > 10 LIMIT 2\"");
+    implementation.contains("\"MATCH (p:Player {team: $team}) RETURN exists(p.retiredAt) OR p.injured ORDER BY p.name LIMIT 2\"");
+    implementation.doesNotContain("LIMIT 1");
+  }
+
+  @Test
+  void single_row_query_methods_should_limit_their_trailing_return_clause() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+            import java.util.List;
+            import java.util.concurrent.CompletionStage;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player) RETURN count(p)") long count();
+              @Query("MATCH (p:Player {name: $name}) RETURN count(p) > 0") boolean exists(String name);
+              @Query("MATCH (t:Team {name: $team}) RETURN EXISTS { (t)<-[:PLAYS_FOR]-(:Player {name: $name}) } AS found") CompletionStage<Boolean> existsAsync(String team, String name);
+              @Query("MATCH (p:Player) RETURN NOT exists(p.retiredAt)") Boolean active();
+              @Query("MATCH (p:Player) RETURN p.name ORDER BY p.name;") String firstName();
+              @Query("MATCH (p:Player) RETURN p.name.first") String anyName();
+              @Query("MATCH (p:Player) RETURN p.name LIMIT 1") String limitedName();
+              @Query("MATCH (p:Player) RETURN p.name UNION MATCH (c:Coach) RETURN c.name") String union();
+              @Query(value = "MATCH (p:Player) RETURN p.age", autoLimit = false) long age();
+              @Query("MATCH (p:Player) RETURN p.name") List<String> names();
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    final var implementation = assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String();
+    implementation.contains("\"MATCH (p:Player) RETURN count(p) LIMIT 2\"");
+    implementation.contains("\"MATCH (p:Player {name: $name}) RETURN count(p) > 0 LIMIT 1\"");
+    implementation.contains("\"MATCH (t:Team {name: $team}) RETURN EXISTS { (t)<-[:PLAYS_FOR]-(:Player {name: $name}) } AS found LIMIT 1\"");
+    implementation.contains("\"MATCH (p:Player) RETURN NOT exists(p.retiredAt) LIMIT 1\"");
+    implementation.contains("\"MATCH (p:Player) RETURN p.name ORDER BY p.name LIMIT 2;\"");
+    implementation.contains("\"MATCH (p:Player) RETURN p.name.first LIMIT 2\"");
+    implementation.contains("\"MATCH (p:Player) RETURN p.name LIMIT 1\"");
+    implementation.contains("\"MATCH (p:Player) RETURN p.name UNION MATCH (c:Coach) RETURN c.name\"");
+    implementation.contains("\"MATCH (p:Player) RETURN p.age\"");
+    implementation.contains("\"MATCH (p:Player) RETURN p.name\"");
+  }
+
+  @Test
+  void cypher_should_be_normalized_and_its_literals_hoisted_into_parameters() {
+    final var compilation = javac("-Amate4j.literals=hoist")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+            import java.util.List;
+
+            @Queries
+            public interface Players {
+              @Query(\"""
+                  // players by id
+                  MATCH (p:Player {id: 5})
+                  WHERE p.name = 'Lio' /* or any alias */ AND p.active = true AND p.rate >= 1.5
+                  RETURN p.name\""") String name();
+
+              @Query("MATCH (p:Player)-[:PLAYS*1..3]->(t:Team {name: $team}) WHERE p.code = 0x1F OR p.alias = 'it\\\\'s' RETURN p.name LIMIT 10")
+              List<String> names(String team);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    final var implementation = assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String();
+    implementation.contains("\"MATCH (p:Player {id: $__literal0}) WHERE p.name = $__literal1 AND p.active = $__literal2 AND p.rate >= $__literal3 RETURN p.name LIMIT 2\"");
+    implementation.contains("\"__literal0\", 5L");
+    implementation.contains("\"__literal1\", \"Lio\"");
+    implementation.contains("\"__literal2\", true");
+    implementation.contains("\"__literal3\", 1.5");
+    implementation.contains("\"MATCH (p:Player)-[:PLAYS*1..3]->(t:Team {name: $team}) WHERE p.code = 0x1F OR p.alias = 'it\\\\'s' RETURN p.name LIMIT 10\"");
+  }
+
+  @Test
+  void only_literals_of_predicates_and_patterns_should_be_hoisted() {
+    final var compilation = javac("-Amate4j.literals=hoist")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player {limit: 3}) WHERE p.rate > 1 SET p.active = true RETURN count(p) > 0") boolean activate();
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    final var implementation = assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String();
+    implementation.contains("\"MATCH (p:Player {limit: $__literal0}) WHERE p.rate > $__literal1 SET p.active = true RETURN count(p) > 0 LIMIT 1\"");
+    implementation.contains("\"__literal0\", 3L");
+    implementation.contains("\"__literal1\", 1L");
+    implementation.doesNotContain("__literal2");
+  }
+
+  @Test
+  void inline_literals_should_be_reported_by_default() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player {id: 5}) RETURN p.name") String name();
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    assertThat(compilation)
+        .hadWarningContaining("inline literal 5");
+    assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .contains("\"MATCH (p:Player {id: 5}) RETURN p.name LIMIT 2\"");
+  }
+
+  @Test
+  void inline_literals_should_be_reported_when_configured_so() {
+    final var compilation = javac("-Amate4j.literals=warn")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player {id: 5}) RETURN p.name") String name();
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    assertThat(compilation)
+        .hadWarningContaining("inline literal 5");
+    assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .contains("\"MATCH (p:Player {id: 5}) RETURN p.name LIMIT 2\"");
+  }
+
+  @Test
+  void invalid_literals_mode_should_NOT_be_compilable() {
+    final var compilation = javac("-Amate4j.literals=inline")
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", PLAYERS));
+    assertThat(compilation)
+        .hadErrorContaining("mate4j.literals must be one of hoist, warn or keep");
+  }
+
+  @Test
+  void cypher_options_should_prefix_the_statement() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+            import java.util.List;
+
+            @Queries
+            @CypherOptions(runtime = CypherOptions.Runtime.PARALLEL, planner = CypherOptions.Planner.COST)
+            public interface Players {
+              @Query("MATCH (p:Player) RETURN p.name") List<String> names();
+
+              @CypherOptions(runtime = CypherOptions.Runtime.SLOTTED, replan = CypherOptions.Replan.FORCE)
+              @Query("MATCH (p:Player) RETURN p.team") List<String> teams();
+
+              @CypherOptions(runtime = CypherOptions.Runtime.PIPELINED)
+              @Batch
+              @Query("CREATE (:Player {name: row})") void create(List<String> names);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    final var implementation = assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String();
+    implementation.contains("\"CYPHER runtime=parallel planner=cost MATCH (p:Player) RETURN p.name\"");
+    implementation.contains("\"CYPHER runtime=slotted planner=cost replan=force MATCH (p:Player) RETURN p.team\"");
+    implementation.contains("\"CYPHER runtime=pipelined planner=cost UNWIND $names AS row CREATE (:Player {name: row})\"");
+  }
+
+  @Test
+  void query_type_should_be_deducted_after_cypher_prefix() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("CYPHER 5 runtime = parallel MATCH (p:Player {name: $name}) RETURN count(p)") long count(String name);
+
+              @Query("cypher replan=skip CREATE (:Player {name: $name})") void create(String name);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    final var implementation = assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String();
+    implementation.contains("executeRead");
+    implementation.contains("executeWrite");
+  }
+
+  @Test
+  void invalid_cypher_options_should_NOT_be_compilable() {
+    final var parallelWrite = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @CypherOptions(runtime = CypherOptions.Runtime.PARALLEL)
+              @Query("CREATE (:Player {name: $name})") void create(String name);
+            }"""));
+    assertThat(parallelWrite)
+        .hadErrorContaining("@matero.queries.CypherOptions PARALLEL runtime only runs read queries");
+
+    final var prefixed = javac()
+        .withProcessors(new QueriesProcessor())
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @CypherOptions(planner = CypherOptions.Planner.DP)
+              @Query("CYPHER runtime=slotted MATCH (p:Player) RETURN count(p)") long count();
+            }"""));
+    assertThat(prefixed)
+        .hadErrorContaining("@matero.queries.CypherOptions can not be used with queries that already have a CYPHER prefix");
+  }
+
+  @Test
+  void retried_query_methods_should_execute_with_their_retry_policy() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            @Retry(maxAttempts = 4)
+            public interface Players {
+              @Query("MATCH (p:Player) RETURN p.name") java.util.List<String> names();
+
+              @Retry(maxAttempts = 2, maxDuration = 5, backoff = 1, unit = java.time.temporal.ChronoUnit.SECONDS)
+              @Query("MATCH (p:Player {name: $name}) SET p.age = $age") void updateAge(String name, long age);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .contains("      0L,\n"
+                  + "      new matero.queries.neo4j.RetryPolicy(4, java.time.Duration.of(30000L, java.time.temporal.ChronoUnit.MILLIS).toNanos(), java.time.Duration.of(100L, java.time.temporal.ChronoUnit.MILLIS).toNanos()));");
+    assertThat(compilation)
+        .generatedSourceFile("sample.queries.PlayersJava21Impl")
+        .contentsAsUtf8String()
+        .contains("new matero.queries.neo4j.RetryPolicy(2, java.time.Duration.of(5L, java.time.temporal.ChronoUnit.SECONDS).toNanos(), java.time.Duration.of(1L, java.time.temporal.ChronoUnit.SECONDS).toNanos())");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "java.util.stream.Stream<String> names()",
+      "java.util.concurrent.CompletionStage<java.util.List<String>> names()"})
+  void retried_query_methods_NOT_executed_in_blocking_transactions_should_NOT_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Retry @Query("MATCH (p:Player) RETURN p.name") """ + declaration + """
+            ;
+            }"""));
+    assertThat(compilation)
+        .hadErrorContaining("@matero.queries.Retry is only supported by methods executed in blocking transactions");
+  }
+
+  private static final String PLAYERS = """
+      package sample.queries;
+
+      import matero.queries.*;
+
+      @Queries
+      public interface Players {
+        @Query("MATCH (p:Player {name: $name}) RETURN p.age") long age(String name);
+      }""";
+
+  @Test
+  void paged_should_be_a_supported_annotation() {
+    assertWithMessage("supported annotation types")
+        .that(new QueriesProcessor().getSupportedAnnotationTypes())
+        .contains(matero.queries.Paged.class.getCanonicalName());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = {\"p.age DESC\", \"p.name\"}, size = 20) @Query(\"MATCH (p:Player {team: $team}) RETURN p\") matero.queries.neo4j.Page<org.neo4j.driver.types.Node> of(String team, String after)",
+      "@Paged(orderBy = \"t.name\") @Query(\"MATCH (t:Team) CALL { WITH t MATCH (t)<-[:PLAYS_AT]-(p) RETURN count(p) AS n ORDER BY n LIMIT 1 } RETURN t.name AS team, n\") matero.queries.neo4j.Page<org.neo4j.driver.Record> teams(String after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name AS name, p.age AS age\") matero.queries.neo4j.Page<java.util.Map<String, Object>> rows(String after)"})
+  void paged_query_method_should_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              """ + declaration + ";\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name\") java.util.List<String> names(String after)",
+      "@Query(\"MATCH (p:Player) RETURN p.name\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name\") matero.queries.neo4j.Page<String> names(long after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name\") matero.queries.neo4j.Page<String> names()",
+      "@Paged(orderBy = {}) @Query(\"MATCH (p:Player) RETURN p.name\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p.name\", size = 0) @Query(\"MATCH (p:Player) RETURN p.name\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name ORDER BY p.name\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name SKIP 10\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) RETURN p.name UNION MATCH (p:Coach) RETURN p.name\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p.name\") @Query(\"MATCH (p:Player) SET p.seen = true\") matero.queries.neo4j.Page<String> names(String after)",
+      "@Paged(orderBy = \"p\") @Batch @Query(\"MATCH (p:Player) RETURN p\") matero.queries.neo4j.Page<String> names(java.util.List<String> after)"})
+  void invalid_paged_query_method_should_NOT_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              """ + declaration + ";\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("Page");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Paged(orderBy = \"team\") @Query(\"MATCH (p:Player)-[:PLAYS_AT]->(t:Team) RETURN t.name AS team, count(p) AS players\") matero.queries.neo4j.Page<org.neo4j.driver.Record> teams(String after)",
+      "@Paged(orderBy = \"team\") @Query(\"MATCH (p:Player)-[:PLAYS_AT]->(t:Team) RETURN t.name AS team, size(collect(p.name)) AS players\") matero.queries.neo4j.Page<org.neo4j.driver.Record> teams(String after)"})
+  void paged_query_methods_aggregating_their_RETURN_clause_should_NOT_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              """ + declaration + ";\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("queries can not aggregate at their RETURN clause");
+  }
+
+  @Test
+  void paged_query_methods_returning_DISTINCT_rows_should_NOT_be_compilable() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Paged(orderBy = "t.name") @Query("MATCH (p:Player)-[:PLAYS_AT]->(t:Team) RETURN DISTINCT t.name")
+              matero.queries.neo4j.Page<String> teams(String after);
+            }"""));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("queries can not RETURN DISTINCT rows");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "java.util.concurrent.CompletionStage<Long>", "java.util.concurrent.CompletableFuture<String>",
+      "java.util.concurrent.CompletionStage<java.util.List<String>>", "java.util.concurrent.CompletableFuture<java.util.List<Object>>",
+      "java.util.concurrent.CompletionStage<java.util.Map<String, Long>>", "java.util.concurrent.CompletionStage<Void>"})
+  void query_method_returning_CompletionStage_should_be_compilable(final @NonNull String asyncType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (n) RETURN n.prop") """ + asyncType + " get();\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "java.util.concurrent.CompletionStage<java.util.stream.Stream<String>>",
+      "java.util.concurrent.CompletionStage<java.util.concurrent.CompletableFuture<String>>",
+      "java.util.List<java.util.concurrent.CompletionStage<String>>"})
+  void query_method_returning_CompletionStage_of_Stream_or_nested_CompletionStage_should_NOT_be_compilable(final @NonNull String asyncType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (n) RETURN n.prop") """ + asyncType + " get();\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("component is not supported");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "java.util.concurrent.Flow.Publisher<Long>", "java.util.concurrent.Flow.Publisher<org.neo4j.driver.Record>",
+      "java.util.concurrent.Flow.Publisher<java.util.Map<String, Object>>", "org.reactivestreams.Publisher<String>",
+      "org.reactivestreams.Publisher<java.util.List<String>>"})
+  void query_method_returning_Publisher_should_be_compilable(final @NonNull String publisherType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (n) RETURN n.prop") """ + publisherType + " get();\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(classes = {String.class, Long.class, Node.class, Record.class, List.class})
+  void query_method_returning_QueryCursor_should_be_compilable(final @NonNull Class<?> component) {
+    final var cursorType = "matero.queries.neo4j.QueryCursor<" + component.getCanonicalName() + '>';
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (n) RETURN n.prop") """ + cursorType + " get();\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "PlayerRow", "java.util.List<PlayerRow>", "java.util.stream.Stream<PlayerRow>",
+      "matero.queries.neo4j.QueryCursor<PlayerRow>", "java.util.concurrent.CompletionStage<PlayerRow>",
+      "java.util.concurrent.CompletableFuture<java.util.List<PlayerRow>>"})
+  void query_method_returning_record_should_be_compilable(final @NonNull String recordType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(
+            JavaFileObjects.forSourceString("sample.queries.PlayerRow", """
+                package sample.queries;
+
+                import matero.queries.Alias;
+
+                public record PlayerRow(String name, @Alias("player_age") int age, java.util.List<String> nicknames) {}
+                """),
+            JavaFileObjects.forSourceString("sample.queries.Players", """
+                package sample.queries;
+
+                import matero.queries.*;
+
+                @Queries
+                public interface Players {
+                  @Query("MATCH (p:Player) RETURN p.name AS name, p.age AS player_age, p.nicknames AS nicknames") """ + recordType + " get();\n}"));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"java.util.Map<String, PlayerRow>", "java.util.List<java.util.List<PlayerRow>>", "TeamRow"})
+  void query_method_returning_record_as_nested_component_should_NOT_be_compilable(final @NonNull String recordType) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(
+            JavaFileObjects.forSourceString("sample.queries.PlayerRow", """
+                package sample.queries;
+
+                public record PlayerRow(String name, long age) {}
+                """),
+            JavaFileObjects.forSourceString("sample.queries.TeamRow", """
+                package sample.queries;
+
+                public record TeamRow(String name, PlayerRow captain) {}
+                """),
+            JavaFileObjects.forSourceString("sample.queries.Players", """
+                package sample.queries;
+
+                import matero.queries.*;
+
+                @Queries
+                public interface Players {
+                  @Query("MATCH (p:Player) RETURN p.name AS name, p.age AS age") """ + recordType + " get();\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("record as");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Timeout(5)",
+      "@Timeout(value = 1500, unit = java.time.temporal.ChronoUnit.MILLIS) @FetchSize(100)",
+      "@TxMetadata(key = \"team\", value = \"billing \\\"core\\\"\") @TxMetadata(key = \"feature\", value = \"ranking\")",
+      "@FetchSize(5000) @TxMetadata(key = \"owner\", value = \"players\")",
+      "@Retry(maxAttempts = 5, maxDuration = 2, backoff = 50, unit = java.time.temporal.ChronoUnit.SECONDS)"})
+  void query_method_with_execution_options_should_be_compilable(final @NonNull String options) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            @Timeout(30)
+            @TxMetadata(key = "owner", value = "sample")
+            public interface Players {
+              @Query("MATCH (p:Player) RETURN p.name") java.util.List<String> names();
+
+              """ + options + """
+
+              @Query("MATCH (p:Player {name: $name}) RETURN p.age") long age(String name);
+
+              @Query("MATCH (p:Player {name: $name, team: $team}) RETURN p.age") long age(String name, String team);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Timeout(0)", "@FetchSize(-1)", "@TxMetadata(key = \"mate4j.method\", value = \"other\")",
+      "@TxMetadata(key = \" \", value = \"blank\")",
+      "@TxMetadata(key = \"team\", value = \"a\") @TxMetadata(key = \"team\", value = \"b\")",
+      "@Retry(maxAttempts = 0)", "@Retry(maxDuration = 0)", "@Retry(backoff = -1)"})
+  void query_method_with_invalid_execution_options_should_NOT_be_compilable(final @NonNull String options) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              """ + options + """
+
+              @Query("MATCH (p:Player {name: $name}) RETURN p.age") long age(String name);
+            }"""));
+    assertThat(compilation)
+        .hadErrorCount(1);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Cached long count()",
+      "@Cached(ttl = 5, unit = java.time.temporal.ChronoUnit.MINUTES) String nameOf(long id)",
+      "@Cached(maxEntries = 10) java.util.List<String> names(String team, int limit)",
+      "@Cached java.util.Map<String, Object> properties(String name)"})
+  void cached_query_method_should_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(
+            JavaFileObjects.forSourceString("sample.queries.Teams", """
+                package sample.queries;
+
+                import matero.queries.*;
+
+                @Queries
+                public interface Teams {
+                  @Invalidates(Players.class)
+                  @Query("CREATE (t:Team {name: $name})") void create(String name);
+                }"""),
+            JavaFileObjects.forSourceString("sample.queries.Players", """
+                package sample.queries;
+
+                import matero.queries.*;
+
+                @Queries
+                public interface Players {
+                  @Query("MATCH (p:Player) RETURN p.prop") """ + declaration + """
+                ;
+
+                  @Query("CREATE (p:Player {name: $name}) RETURN id(p)") long create(String name);
+                }"""));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "@Cached @Query(\"CREATE (p:Player {name: $name}) RETURN id(p)\") long create(String name)",
+      "@Cached @Query(\"MATCH (p:Player) RETURN p.name\") java.util.stream.Stream<String> names()",
+      "@Cached @Query(\"MATCH (p:Player) WHERE id(p) IN $ids RETURN p.name\") java.util.List<String> names(long[] ids)",
+      "@Cached(ttl = 0) @Query(\"MATCH (p:Player) RETURN count(p)\") long count()",
+      "@Invalidates(String.class) @Query(\"CREATE (p:Player {name: $name})\") void create(String name)",
+      "@Invalidates(Players.class) @Query(\"MATCH (p:Player) RETURN count(p)\") long count()"})
+  void invalid_cached_or_invalidating_query_method_should_NOT_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              """ + declaration + ";\n}"));
+    assertThat(compilation)
+        .hadErrorCount(1);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "java.util.concurrent.CompletionStage<Void> create(String name)",
+      "java.util.stream.Stream<Long> create(String name)",
+      "matero.queries.neo4j.QueryCursor<Long> create(String name)",
+      "java.util.concurrent.Flow.Publisher<Long> create(String name)"})
+  void non_blocking_write_query_methods_invalidating_caches_should_NOT_be_compilable(final @NonNull String declaration) {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Cached @Query("MATCH (p:Player) RETURN count(p)") long count();
+
+              @Query("CREATE (p:Player {name: $name}) RETURN id(p)") """ + declaration + """
+            ;
+            }"""));
+    assertThat(compilation)
+        .hadErrorContaining("must be executed in blocking transactions");
+  }
+
+  @Test
+  void non_blocking_write_query_methods_of_interfaces_without_caches_should_be_compilable() {
+    final var compilation = javac()
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("CREATE (p:Player {name: $name}) RETURN id(p)") java.util.concurrent.CompletionStage<Long> create(String name);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "MATCH (n) WHERE n.name = 'Messi' RETURN n",
+      "MATCH (p:Player {name: 'Messi'}), (t:Team {name: 'Barcelona'}) RETURN p.age, t.founded",
+      "MATCH (p:Player) WHERE p.age > 30 RETURN p.name"})
+  void query_plan_check_should_report_queries_scanning_without_index(final @NonNull String cypher, final @TempDir java.nio.file.Path dir) throws IOException {
+    final var schema = Files.writeString(dir.resolve("schema.cypher"), """
+        CREATE INDEX player_name IF NOT EXISTS FOR (p:Player) ON (p.name);
+        CREATE INDEX team_name IF NOT EXISTS FOR (t:Team) ON (t.name);
+        """);
+    final var compilation = javac("-Amate4j.planCheck=error", "-Amate4j.planCheck.schema=" + schema, "-Amate4j.planCheck.largeLabels=Player")
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (p:Player {name: $name}) RETURN p.age") long age(String name);
+
+              @SuppressWarnings("mate4j.planCheck")
+              @Query("MATCH (p) RETURN count(p)") long countAll();
+
+              @Query("SCAN") java.util.List<Object> scan();
+            }""".replace("SCAN", cypher)));
+    assertThat(compilation)
+        .hadErrorCount(1);
+    assertThat(compilation)
+        .hadErrorContaining("query plan uses");
+  }
+
+  @Test
+  void query_plan_check_should_report_as_warnings_when_configured() {
+    final var compilation = javac("-Amate4j.planCheck=warn")
+        .withProcessors(new QueriesProcessor(PROCESSING_DATETIME))
+        .compile(JavaFileObjects.forSourceString("sample.queries.Players", """
+            package sample.queries;
+
+            import matero.queries.*;
+
+            @Queries
+            public interface Players {
+              @Query("MATCH (n) WHERE n.name = $name RETURN n") java.util.List<Object> named(String name);
+            }"""));
+    assertThat(compilation)
+        .succeeded();
+    assertThat(compilation)
+        .hadWarningContaining("query plan uses AllNodesScan");
+  }
+
+  /**
+   * Gate of processing time: processes 10k query methods spread over 100 interfaces and fails when the average time per
+   * method exceeds the budget, {@value #PROCESSOR_BUDGET}us by default (loose enough for CI machines), or the one set
+   * with {@code -Dmate4j.processorBudget=<microseconds per query method>}.
+   */
+  @Test
+  void processing_time_per_query_method_should_be_within_budget() {
+    final var budget = Long.getLong("mate4j.processorBudget", PROCESSOR_BUDGET);
+    final var interfaces = 100;
+    final var methodsPerInterface = 100;
+    final var sources = new java.util.ArrayList<JavaFileObject>(interfaces);
+    for (var i = 0; i < interfaces; i++) {
+      sources.add(JavaFileObjects.forSourceString("sample.queries.Players" + i, syntheticQueries("Players" + i, methodsPerInterface)));
+    }
+    final var processor = new TimedProcessor(new QueriesProcessor(PROCESSING_DATETIME));
+    final var compilation = javac()
+        .withProcessors(processor)
+        .compile(sources);
+    assertThat(compilation)
+        .succeeded();
+
+    final var microsPerMethod = processor.nanos / 1_000 / (interfaces * methodsPerInterface);
+    assertWithMessage("processing time per query method is %sus, budget is %sus", microsPerMethod, budget)
+        .that(microsPerMethod)
+        .isAtMost(budget);
+  }
+
+  private static @NonNull String syntheticQueries(
+      final @NonNull String name,
+      final int methods) {
+    final var source = new StringBuilder("""
+        package sample.queries;
+
+        import matero.queries.*;
+
+        @Queries
+        public interface\s""").append(name).append(" {\n");
+    for (var i = 0; i < methods; i++) {
+      source.append(switch (i % 5) {
+        case 0 -> "  @Query(\"MATCH (p:Player {team: $team}) RETURN count(p)\") long count" + i + "(String team);\n";
+        case 1 -> "  @Query(\"MATCH (p:Player {team: $team}) RETURN p.name LIMIT $limit\") java.util.List<String> names" + i + "(String team, int limit);\n";
+        case 2 -> "  @Query(\"MATCH (p:Player) WHERE p.name IN $names RETURN p\") java.util.stream.Stream<org.neo4j.driver.types.Node> players" + i + "(java.util.Set<String> names);\n";
+        case 3 -> "  @Query(\"MATCH (p:Player {id: $id}) SET p += $props\") void update" + i + "(long id, java.util.Map<String, Object> props);\n";
+        default -> "  @Query(\"MATCH (p:Player {id: $id}) RETURN p.age\") java.util.concurrent.CompletionStage<Long> age" + i + "(long id);\n";
+      });
+    }
+    return source.append('}').toString();
+  }
+
+  /**
+   * Accumulates the time spent by {@code delegate}.
+   */
+  private static final class TimedProcessor
+      implements Processor {
+    private final @NonNull Processor delegate;
+    long nanos;
+
+    TimedProcessor(final @NonNull Processor delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public java.util.Set<String> getSupportedOptions() {
+      return this.delegate.getSupportedOptions();
+    }
+
+    @Override
+    public java.util.Set<String> getSupportedAnnotationTypes() {
+      return this.delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return this.delegate.getSupportedSourceVersion();
+    }
+
+    @Override
+    public void init(final ProcessingEnvironment processingEnv) {
+      final var start = System.nanoTime();
+      this.delegate.init(processingEnv);
+      this.nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public boolean process(
+        final java.util.Set<? extends TypeElement> annotations,
+        final RoundEnvironment roundEnv) {
+      final var start = System.nanoTime();
+      try {
+        return this.delegate.process(annotations, roundEnv);
+      } finally {
+        this.nanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override
+    public Iterable<? extends Completion> getCompletions(
+        final Element element,
+        final AnnotationMirror annotation,
+        final ExecutableElement member,
+        final String userText) {
+      return this.delegate.getCompletions(element, annotation, member, userText);
+    }
+  }
 }